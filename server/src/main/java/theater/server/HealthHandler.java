@@ -0,0 +1,25 @@
+package theater.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Answers health checks.
+ */
+final class HealthHandler implements HttpHandler {
+
+    private static final int OK = 200;
+    private static final byte[] BODY = "ok\n".getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", MediaTypes.TEXT_PLAIN + "; charset=utf-8");
+            exchange.sendResponseHeaders(OK, BODY.length);
+            exchange.getResponseBody().write(BODY);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package theater.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import theater.Play;
+
+/**
+ * Local load test comparing a fixed pool of platform threads with a virtual thread per request.
+ * Each request first waits for a simulated backend call, such as loading the invoice from a database,
+ * then renders its statement. With more concurrent requests than pool threads, the fixed pool queues
+ * them while the virtual threads all wait at once.
+ * Arguments, all optional: requests (20000), concurrency (1000), pool size (200), backend latency in ms (20).
+ */
+public final class LoadTest {
+
+    private static final int DEFAULT_REQUESTS = 20_000;
+    private static final int DEFAULT_CONCURRENCY = 1000;
+    private static final int DEFAULT_POOL_SIZE = 200;
+    private static final int DEFAULT_LATENCY_MILLIS = 20;
+    private static final int WARMUP_DIVISOR = 10;
+    private static final int OK = 200;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+    private static final String INVOICES = "[{\"customer\":\"BigCo\",\"performances\":["
+            + "{\"playID\":\"hamlet\",\"audience\":55},"
+            + "{\"playID\":\"as-like\",\"audience\":35},"
+            + "{\"playID\":\"othello\",\"audience\":40}]}]";
+
+    private LoadTest() {
+
+    }
+
+    /**
+     * Runs the comparison and prints one line per server mode.
+     *
+     * @param args requests, concurrency, pool size and backend latency in milliseconds
+     * @throws Exception if a server cannot be started or a request fails
+     */
+    public static void main(String[] args) throws Exception {
+        final int requests = argument(args, 0, DEFAULT_REQUESTS);
+        final int concurrency = argument(args, 1, DEFAULT_CONCURRENCY);
+        final int poolSize = argument(args, 2, DEFAULT_POOL_SIZE);
+        final Duration latency = Duration.ofMillis(argument(args, 3, DEFAULT_LATENCY_MILLIS));
+
+        final Map<String, Play> plays = new HashMap<>();
+        plays.put("hamlet", new Play("Hamlet", "tragedy"));
+        plays.put("as-like", new Play("As You Like It", "comedy"));
+        plays.put("othello", new Play("Othello", "tragedy"));
+        final HttpHandler handler = withLatency(new StatementHandler(plays), latency);
+
+        System.out.printf("%d requests, %d concurrent, %d ms backend latency%n",
+                requests, concurrency, latency.toMillis());
+        run("fixed pool of " + poolSize, handler, Executors.newFixedThreadPool(poolSize), requests, concurrency);
+        run("virtual threads", handler, Executors.newVirtualThreadPerTaskExecutor(), requests, concurrency);
+    }
+
+    private static int argument(String[] args, int index, int defaultValue) {
+        if (args.length > index) {
+            return Integer.parseInt(args[index]);
+        }
+        return defaultValue;
+    }
+
+    private static HttpHandler withLatency(HttpHandler handler, Duration latency) {
+        return exchange -> {
+            try {
+                Thread.sleep(latency);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+                return;
+            }
+            handler.handle(exchange);
+        };
+    }
+
+    private static void run(String mode, HttpHandler handler, ExecutorService executor, int requests,
+                            int concurrency) throws Exception {
+        try (StatementServer server = StatementServer.start(handler, new InetSocketAddress("localhost", 0),
+                executor);
+             HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            final URI uri = URI.create("http://localhost:" + server.getPort() + StatementServer.STATEMENTS_PATH);
+            send(client, uri, requests / WARMUP_DIVISOR, concurrency);
+            final long start = System.nanoTime();
+            final long[] latencies = send(client, uri, requests, concurrency);
+            final double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-20s %8.0f req/s   p50 %7.1f ms   p99 %7.1f ms   max %7.1f ms%n", mode,
+                    requests / seconds, percentile(latencies, P50), percentile(latencies, P99),
+                    latencies[latencies.length - 1] / NANOS_PER_MILLI);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * fraction) - 1)] / NANOS_PER_MILLI;
+    }
+
+    private static long[] send(HttpClient client, URI uri, int requests, int concurrency) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", "text/html")
+                .POST(HttpRequest.BodyPublishers.ofString(INVOICES))
+                .build();
+        final long[] latencies = new long[requests];
+        final Semaphore permits = new Semaphore(concurrency);
+        final AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                final int index = i;
+                permits.acquire();
+                clients.execute(() -> {
+                    final long start = System.nanoTime();
+                    try {
+                        final HttpResponse<String> response = client.send(request,
+                                HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != OK) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    catch (IOException | InterruptedException exception) {
+                        failures.incrementAndGet();
+                    }
+                    finally {
+                        latencies[index] = System.nanoTime() - start;
+                        permits.release();
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.HOURS);
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " of " + requests + " requests failed");
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,102 @@
+package theater.server;
+
+import java.util.Locale;
+
+import theater.StatementFormat;
+
+/**
+ * Chooses the statement format from an HTTP {@code Accept} header.
+ */
+final class MediaTypes {
+
+    static final String TEXT_PLAIN = "text/plain";
+    static final String TEXT_HTML = "text/html";
+
+    private static final double NOT_ACCEPTABLE = 0.0;
+    private static final double DEFAULT_QUALITY = 1.0;
+    private static final int EXACT_MATCH = 2;
+    private static final int TYPE_MATCH = 1;
+    private static final int ANY_MATCH = 0;
+    private static final int NO_MATCH = -1;
+
+    private MediaTypes() {
+
+    }
+
+    /**
+     * Gets the media type a format is served as.
+     *
+     * @param format the statement format
+     * @return the media type, without parameters
+     */
+    static String mediaType(StatementFormat format) {
+        if (format == StatementFormat.HTML) {
+            return TEXT_HTML;
+        }
+        return TEXT_PLAIN;
+    }
+
+    /**
+     * Picks the format with the highest quality in the header. The quality of a format comes from
+     * the most specific media range that matches it, and plain text wins ties.
+     *
+     * @param accept the value of the Accept header, or null if there was none
+     * @return the format to serve, or null if the client accepts neither text nor HTML
+     */
+    static StatementFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return StatementFormat.PLAIN_TEXT;
+        }
+        final double text = quality(accept, TEXT_PLAIN);
+        final double html = quality(accept, TEXT_HTML);
+        if (html > text) {
+            return StatementFormat.HTML;
+        }
+        if (text > NOT_ACCEPTABLE) {
+            return StatementFormat.PLAIN_TEXT;
+        }
+        return null;
+    }
+
+    private static double quality(String accept, String mediaType) {
+        int bestSpecificity = NO_MATCH;
+        double quality = NOT_ACCEPTABLE;
+        for (final String range : accept.split(",")) {
+            final String[] parts = range.split(";");
+            final int specificity = specificity(parts[0].trim().toLowerCase(Locale.ROOT), mediaType);
+            if (specificity > bestSpecificity) {
+                bestSpecificity = specificity;
+                quality = parseQuality(parts);
+            }
+        }
+        return quality;
+    }
+
+    private static int specificity(String range, String mediaType) {
+        if (range.equals(mediaType)) {
+            return EXACT_MATCH;
+        }
+        if (range.equals(mediaType.substring(0, mediaType.indexOf('/')) + "/*")) {
+            return TYPE_MATCH;
+        }
+        if ("*/*".equals(range)) {
+            return ANY_MATCH;
+        }
+        return NO_MATCH;
+    }
+
+    private static double parseQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                }
+                catch (NumberFormatException exception) {
+                    return NOT_ACCEPTABLE;
+                }
+            }
+        }
+        return DEFAULT_QUALITY;
+    }
+}
@@ -0,0 +1,199 @@
+package theater.server;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementFormat;
+import theater.calculator.PlayTypeRegistry;
+import theater.data.ColumnarStatementData;
+import theater.data.StatementView;
+import theater.data.UnknownPlayException;
+import theater.io.InvoiceReader;
+
+/**
+ * Renders the statements of the invoices posted in the invoices.json format.
+ * The format follows the {@code Accept} header, and each statement is written to the
+ * chunked response as soon as its invoice has been parsed, so memory use does not grow
+ * with the size of the request. The handler blocks the calling thread while it reads and
+ * writes, which is cheap when every exchange runs on its own virtual thread.
+ * Until the first statement is sent, an invoice with an unknown play or play type is answered
+ * with 422 and any other failure with 500; after that, a failure drops the connection, so the
+ * client cannot take the statements sent so far for the complete response.
+ */
+public final class StatementHandler implements HttpHandler {
+
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int NOT_ACCEPTABLE = 406;
+    private static final int UNPROCESSABLE = 422;
+    private static final int INTERNAL_ERROR = 500;
+    private static final int CHUNKED = 0;
+    private static final int NO_BODY = -1;
+
+    private final Map<String, Play> plays;
+    private final Map<String, String> unknownTypes = new HashMap<>();
+
+    /**
+     * Creates a handler for statements of the given plays.
+     *
+     * @param plays the map of play information; it is shared by all requests and must not change
+     */
+    public StatementHandler(Map<String, Play> plays) {
+        this.plays = plays;
+        final Set<String> types = PlayTypeRegistry.getDefault().getTypes();
+        for (final Map.Entry<String, Play> entry : plays.entrySet()) {
+            if (!types.contains(entry.getValue().getType())) {
+                unknownTypes.put(entry.getKey(), entry.getValue().getType());
+            }
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        // an exception leaves the exchange open, so that the server drops the connection instead of
+        // ending a chunked response that is missing statements as if it were complete
+        serve(exchange);
+        exchange.close();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            exchange.sendResponseHeaders(METHOD_NOT_ALLOWED, NO_BODY);
+            return;
+        }
+        final StatementFormat format = MediaTypes.negotiate(exchange.getRequestHeaders().getFirst("Accept"));
+        if (format == null) {
+            sendError(exchange, NOT_ACCEPTABLE, "only " + MediaTypes.TEXT_PLAIN + " and "
+                    + MediaTypes.TEXT_HTML + " are available");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", MediaTypes.mediaType(format) + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Vary", "Accept");
+        respond(exchange, format);
+    }
+
+    private void respond(HttpExchange exchange, StatementFormat format) throws IOException {
+        final Response response = new Response(exchange);
+        final Reader body = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8);
+        try {
+            InvoiceReader.read(body, invoice -> {
+                checkTypes(invoice);
+                response.write(format, invoice, plays);
+            });
+        }
+        catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        catch (IOException exception) {
+            if (!response.started) {
+                sendError(exchange, BAD_REQUEST, exception.getMessage());
+                return;
+            }
+            throw exception;
+        }
+        catch (UnknownPlayException | UnknownTypeException exception) {
+            if (!response.started) {
+                sendError(exchange, UNPROCESSABLE, exception.getMessage());
+                return;
+            }
+            throw exception;
+        }
+        catch (RuntimeException exception) {
+            if (!response.started) {
+                sendError(exchange, INTERNAL_ERROR, "statements could not be rendered");
+                return;
+            }
+            throw exception;
+        }
+        if (!response.started) {
+            exchange.sendResponseHeaders(OK, NO_BODY);
+        }
+    }
+
+    /**
+     * Rejects an invoice that refers to a play whose type has no pricing, before it is priced.
+     *
+     * @param invoice the invoice to check
+     * @throws UnknownTypeException if a play of the invoice has an unknown type
+     */
+    private void checkTypes(Invoice invoice) {
+        if (unknownTypes.isEmpty()) {
+            return;
+        }
+        for (final Performance performance : invoice.getPerformances()) {
+            final String type = unknownTypes.get(performance.getPlayID());
+            if (type != null) {
+                throw new UnknownTypeException("unknown type " + type + " of play " + performance.getPlayID()
+                        + " in invoice for " + invoice.getCustomer());
+            }
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        final byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", MediaTypes.TEXT_PLAIN + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Response body that starts the chunked response on its first statement.
+     * Statements are rendered through one writer per response rather than the renderer's
+     * per-thread buffers, since every request runs on a new virtual thread.
+     */
+    private static final class Response {
+
+        private final HttpExchange exchange;
+        private Writer out;
+        private boolean started;
+
+        private Response(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        private void write(StatementFormat format, Invoice invoice, Map<String, Play> plays) {
+            // price before starting the response, so that an unknown play can still be reported as an error
+            final StatementView data = new ColumnarStatementData(invoice, plays);
+            try {
+                if (!started) {
+                    exchange.sendResponseHeaders(OK, CHUNKED);
+                    out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+                    started = true;
+                }
+                format.renderer().render(data, out);
+                out.flush();
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Thrown when an invoice refers to a play whose type is not in the play type registry.
+     */
+    private static final class UnknownTypeException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        private UnknownTypeException(String message) {
+            super(message);
+        }
+    }
+}
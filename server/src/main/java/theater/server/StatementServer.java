@@ -0,0 +1,114 @@
+package theater.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import theater.Play;
+import theater.io.PlaysReader;
+
+/**
+ * Embedded statement service on the JDK's HTTP server.
+ * By default every exchange is handled on its own virtual thread, so a request that blocks
+ * on a slow client or backend parks a virtual thread instead of holding a pooled platform thread.
+ * POST invoices in the invoices.json format to {@value #STATEMENTS_PATH}; {@value #HEALTH_PATH} answers GET.
+ */
+public final class StatementServer implements AutoCloseable {
+
+    /**
+     * Path of the statement endpoint.
+     */
+    public static final String STATEMENTS_PATH = "/statements";
+
+    /**
+     * Path of the health check endpoint.
+     */
+    public static final String HEALTH_PATH = "/health";
+
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_PORT = 8080;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StatementServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server that handles every request on a new virtual thread.
+     *
+     * @param plays the map of play information; it must not change while the server runs
+     * @param address the address to listen on; port 0 picks a free port
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static StatementServer start(Map<String, Play> plays, InetSocketAddress address) throws IOException {
+        return start(new StatementHandler(plays), address, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Starts a server with any handler and executor, for instance a fixed pool of platform threads.
+     *
+     * @param handler the handler of the statement endpoint
+     * @param address the address to listen on; port 0 picks a free port
+     * @param executor runs the handlers; it is shut down when the server is closed
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static StatementServer start(HttpHandler handler, InetSocketAddress address, ExecutorService executor)
+            throws IOException {
+        final HttpServer server = HttpServer.create(address, BACKLOG);
+        server.createContext(STATEMENTS_PATH, handler);
+        server.createContext(HEALTH_PATH, new HealthHandler());
+        server.setExecutor(executor);
+        server.start();
+        return new StatementServer(server, executor);
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits for none of the running ones, and shuts the executor down.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Serves statements until the process is stopped.
+     * Arguments: the plays.json file, then optionally the port (8080 by default).
+     *
+     * @param args the command line arguments
+     * @throws IOException if the plays cannot be read or the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: java -jar statement-server.jar plays.json [port]");
+            System.exit(2);
+        }
+        final Map<String, Play> plays = PlaysReader.read(Path.of(args[0]));
+        int port = DEFAULT_PORT;
+        if (args.length > 1) {
+            port = Integer.parseInt(args[1]);
+        }
+        final StatementServer server = start(plays, new InetSocketAddress(port));
+        System.out.println("serving statements on http://localhost:" + server.getPort() + STATEMENTS_PATH);
+    }
+}
@@ -0,0 +1,188 @@
+package theater.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import theater.HTMLStatementPrinter;
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementFormat;
+import theater.StatementPrinter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+
+
+public class StatementServerTests {
+
+    private static final String INVOICES = "[{\"customer\":\"BigCo\",\"performances\":["
+            + "{\"playID\":\"hamlet\",\"audience\":55},"
+            + "{\"playID\":\"as-like\",\"audience\":35},"
+            + "{\"playID\":\"othello\",\"audience\":40}]},"
+            + "{\"customer\":\"<Small & Co>\",\"performances\":[{\"playID\":\"hamlet\",\"audience\":10}]}]";
+
+    private StatementServer server;
+    private HttpClient client;
+
+    private static List<Invoice> invoices() {
+        return List.of(invoice(), new Invoice("<Small & Co>", List.of(new Performance("hamlet", 10))));
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        server = StatementServer.start(plays(), new InetSocketAddress("localhost", 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void stopServer() {
+        client.close();
+        server.close();
+    }
+
+    private HttpResponse<String> post(String accept, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + StatementServer.STATEMENTS_PATH))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void rendersTextByDefaultTest() throws Exception {
+        HttpResponse<String> response = post(null, INVOICES);
+
+        StringBuilder expected = new StringBuilder();
+        for (Invoice invoice : invoices()) {
+            expected.append(new StatementPrinter(invoice, plays()).statement());
+        }
+        assertEquals(200, response.statusCode());
+        assertEquals("text/plain; charset=utf-8", response.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(expected.toString(), response.body());
+    }
+
+    @Test
+    public void rendersHtmlWhenAcceptedTest() throws Exception {
+        HttpResponse<String> response = post("text/html,application/xhtml+xml,*/*;q=0.8", INVOICES);
+
+        StringBuilder expected = new StringBuilder();
+        for (Invoice invoice : invoices()) {
+            expected.append(new HTMLStatementPrinter(invoice, plays()).statement());
+        }
+        assertEquals(200, response.statusCode());
+        assertEquals("text/html; charset=utf-8", response.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(expected.toString(), response.body());
+    }
+
+    @Test
+    public void reportsErrorsTest() throws Exception {
+        assertEquals(406, post("application/json", INVOICES).statusCode());
+        assertEquals(400, post("text/plain", "[{\"customer\": ").statusCode());
+
+        HttpResponse<String> unknown = post("text/plain",
+                "[{\"customer\":\"BigCo\",\"performances\":[{\"playID\":\"lear\",\"audience\":1}]}]");
+        assertEquals(422, unknown.statusCode());
+        assertTrue(unknown.body().contains("lear"));
+
+        HttpResponse<String> empty = post("text/plain", "[]");
+        assertEquals(200, empty.statusCode());
+        assertEquals("", empty.body());
+
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + StatementServer.STATEMENTS_PATH)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+        HttpResponse<String> health = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + StatementServer.HEALTH_PATH)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals("ok\n", health.body());
+    }
+
+    @Test
+    public void reportsUnknownTypesAndFailuresTest() throws Exception {
+        Map<String, Play> plays = new HashMap<>(plays()) {
+            @Override
+            public Play get(Object playID) {
+                if ("broken".equals(playID)) {
+                    throw new IllegalStateException("plays are unavailable");
+                }
+                return super.get(playID);
+            }
+        };
+        plays.put("cats", new Play("Cats", "opera"));
+        server.close();
+        server = StatementServer.start(plays, new InetSocketAddress("localhost", 0));
+
+        HttpResponse<String> rendered = post("text/plain", INVOICES);
+        assertEquals(200, rendered.statusCode());
+
+        HttpResponse<String> unknownType = post("text/plain",
+                "[{\"customer\":\"BigCo\",\"performances\":[{\"playID\":\"cats\",\"audience\":1}]}]");
+        assertEquals(422, unknownType.statusCode());
+        assertTrue(unknownType.body().contains("opera"));
+
+        HttpResponse<String> failure = post("text/plain",
+                "[{\"customer\":\"BigCo\",\"performances\":[{\"playID\":\"broken\",\"audience\":1}]}]");
+        assertEquals(500, failure.statusCode());
+    }
+
+    @Test
+    public void abortsResponseOnLaterUnknownPlayTest() throws Exception {
+        String body = "[{\"customer\":\"BigCo\",\"performances\":[{\"playID\":\"hamlet\",\"audience\":55}]},"
+                + "{\"customer\":\"SmallCo\",\"performances\":[{\"playID\":\"lear\",\"audience\":1}]}]";
+        try {
+            post("text/plain", body);
+            fail("expected the response to be cut off");
+        }
+        catch (IOException expected) {
+            // the server dropped the connection after the first statement
+        }
+        assertEquals(200, post("text/plain", INVOICES).statusCode());
+    }
+
+    @Test
+    public void servesConcurrentRequestsTest() throws Exception {
+        String expected = post("text/html", INVOICES).body();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                responses.add(clients.submit(() -> post("text/html", INVOICES)));
+            }
+            for (Future<HttpResponse<String>> response : responses) {
+                assertEquals(expected, response.get().body());
+            }
+        }
+    }
+
+    @Test
+    public void negotiatesFormatTest() {
+        assertEquals(StatementFormat.PLAIN_TEXT, MediaTypes.negotiate(null));
+        assertEquals(StatementFormat.PLAIN_TEXT, MediaTypes.negotiate("*/*"));
+        assertEquals(StatementFormat.PLAIN_TEXT, MediaTypes.negotiate("text/*"));
+        assertEquals(StatementFormat.HTML, MediaTypes.negotiate("text/html"));
+        assertEquals(StatementFormat.HTML, MediaTypes.negotiate("text/plain;q=0.5, text/html"));
+        assertEquals(StatementFormat.PLAIN_TEXT, MediaTypes.negotiate("text/html;q=0.1, text/*;q=0.9"));
+        assertEquals(StatementFormat.HTML, MediaTypes.negotiate("TEXT/HTML; charset=utf-8"));
+        assertNull(MediaTypes.negotiate("application/json"));
+        assertNull(MediaTypes.negotiate("text/plain;q=0, text/html;q=0"));
+    }
+}
@@ -0,0 +1,78 @@
+package theater.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+
+/**
+ * Synthetic invoices and plays shaped like the plays.json and new_plays.json fixtures.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Audiences are drawn from zero up to, but not including, this bound.
+     */
+    public static final int MAX_AUDIENCE = 100;
+
+    private BenchmarkData() {
+
+    }
+
+    /**
+     * Plays of every built-in type, combining plays.json and new_plays.json.
+     * The pastoral "As You Like It" gets its own id so both fixtures fit in one map.
+     *
+     * @return map of playID to Play
+     */
+    public static Map<String, Play> plays() {
+        final Map<String, Play> plays = new HashMap<>();
+        plays.put("hamlet", new Play("Hamlet", "tragedy"));
+        plays.put("as-like", new Play("As You Like It", "comedy"));
+        plays.put("othello", new Play("Othello", "tragedy"));
+        plays.put("henry-v", new Play("Henry V", "history"));
+        plays.put("as-like-pastoral", new Play("As You Like It", "pastoral"));
+        return Collections.unmodifiableMap(plays);
+    }
+
+    /**
+     * Creates an invoice with performances of random plays and audience sizes.
+     *
+     * @param size the number of performances
+     * @param seed the random seed, so runs see the same invoice
+     * @return the invoice
+     */
+    public static Invoice invoice(int size, long seed) {
+        final List<String> playIDs = new ArrayList<>(plays().keySet());
+        Collections.sort(playIDs);
+        final Random random = new Random(seed);
+        final List<Performance> performances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            performances.add(new Performance(playIDs.get(random.nextInt(playIDs.size())),
+                    random.nextInt(MAX_AUDIENCE)));
+        }
+        return new Invoice("Customer " + seed, performances);
+    }
+
+    /**
+     * Creates random audience sizes covering both sides of every pricing threshold.
+     *
+     * @param size the number of audiences
+     * @param seed the random seed
+     * @return the audiences
+     */
+    public static int[] audiences(int size, long seed) {
+        final Random random = new Random(seed);
+        final int[] audiences = new int[size];
+        for (int i = 0; i < size; i++) {
+            audiences[i] = random.nextInt(MAX_AUDIENCE);
+        }
+        return audiences;
+    }
+}
@@ -0,0 +1,79 @@
+package theater.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import theater.calculator.PlayTypeRegistry;
+import theater.calculator.PricingStrategy;
+
+/**
+ * Re-prices a large array of audiences of one play type per operation,
+ * one audience at a time and with the bulk methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkPricingBenchmark {
+
+    @Param({"tragedy", "comedy", "history", "pastoral"})
+    private String type;
+
+    @Param({"1000000"})
+    private int size;
+
+    private PricingStrategy pricing;
+    private int[] audiences;
+    private long[] amounts;
+    private int[] credits;
+
+    /**
+     * Generates the audiences and the output arrays.
+     */
+    @Setup
+    public void setUp() {
+        pricing = PlayTypeRegistry.getDefault().pricingFor(type);
+        audiences = BenchmarkData.audiences(size, type.hashCode());
+        amounts = new long[size];
+        credits = new int[size];
+    }
+
+    /**
+     * Calls the per-audience methods in a loop.
+     *
+     * @return the amounts
+     */
+    @Benchmark
+    public long[] scalar() {
+        for (int i = 0; i < audiences.length; i++) {
+            amounts[i] = pricing.amount(audiences[i]);
+            credits[i] = pricing.volumeCredits(audiences[i]);
+        }
+        return amounts;
+    }
+
+    /**
+     * Calls the bulk methods once each.
+     *
+     * @return the amounts
+     */
+    @Benchmark
+    public long[] bulk() {
+        pricing.amounts(audiences, amounts);
+        pricing.volumeCredits(audiences, credits);
+        return amounts;
+    }
+}
@@ -0,0 +1,120 @@
+package theater.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import theater.Performance;
+import theater.Play;
+import theater.calculator.AbstractPerformanceCalculator;
+import theater.calculator.PlayTypeRegistry;
+import theater.calculator.PricingStrategy;
+import theater.calculator.PricingTable;
+import theater.calculator.RateCard;
+
+/**
+ * Prices one line per operation, through a calculator object, the shared pricing strategy,
+ * a precomputed table and a rule loaded from a rate card.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    private static final int AUDIENCES = 1024;
+
+    @Param({"tragedy", "comedy", "history", "pastoral"})
+    private String type;
+
+    private Play play;
+    private Performance[] performances;
+    private int[] audiences;
+    private PricingStrategy pricing;
+    private PricingStrategy table;
+    private PricingStrategy rule;
+    private int next;
+
+    /**
+     * Prepares the performances priced by the benchmark.
+     */
+    @Setup
+    public void setUp() {
+        play = new Play(type, type);
+        audiences = BenchmarkData.audiences(AUDIENCES, type.hashCode());
+        performances = new Performance[AUDIENCES];
+        for (int i = 0; i < AUDIENCES; i++) {
+            performances[i] = new Performance(type, audiences[i]);
+        }
+        pricing = PlayTypeRegistry.getDefault().pricingFor(type);
+        table = new PricingTable(pricing, BenchmarkData.MAX_AUDIENCE);
+        rule = RateCard.standard().getRules().get(type);
+    }
+
+    /**
+     * Creates a calculator for the line and asks it for amount and credits.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void calculator(Blackhole blackhole) {
+        final AbstractPerformanceCalculator calculator = PlayTypeRegistry.getDefault()
+                .createCalculator(performances[nextIndex()], play);
+        blackhole.consume(calculator.amountCents());
+        blackhole.consume(calculator.volumeCredits());
+    }
+
+    /**
+     * Prices the line with the shared strategy.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void strategy(Blackhole blackhole) {
+        final int audience = audiences[nextIndex()];
+        blackhole.consume(pricing.amount(audience));
+        blackhole.consume(pricing.volumeCredits(audience));
+    }
+
+    /**
+     * Prices the line from a precomputed table.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void table(Blackhole blackhole) {
+        final int audience = audiences[nextIndex()];
+        blackhole.consume(table.amount(audience));
+        blackhole.consume(table.volumeCredits(audience));
+    }
+
+    /**
+     * Prices the line with the rule the standard rate card compiles for the type.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void rule(Blackhole blackhole) {
+        final int audience = audiences[nextIndex()];
+        blackhole.consume(rule.amount(audience));
+        blackhole.consume(rule.volumeCredits(audience));
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (AUDIENCES - 1);
+        return next;
+    }
+}
@@ -0,0 +1,67 @@
+package theater.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import theater.CompiledHtmlTemplate;
+import theater.HTMLStatementPrinter;
+import theater.data.StatementData;
+
+/**
+ * Renders the same computed statement to UTF-8 HTML with the printer and with the compiled template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlTemplateBenchmark {
+
+    @Param({"10", "1000"})
+    private int performances;
+
+    private StatementData data;
+    private CompiledHtmlTemplate template;
+
+    /**
+     * Computes the statement data and compiles the template.
+     */
+    @Setup
+    public void setUp() {
+        data = new StatementData(BenchmarkData.invoice(performances, performances), BenchmarkData.plays());
+        template = new CompiledHtmlTemplate();
+    }
+
+    /**
+     * Renders with the printer and encodes the result.
+     *
+     * @return the encoded statement
+     */
+    @Benchmark
+    public byte[] printer() {
+        return new HTMLStatementPrinter(data).statement().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders with the compiled template.
+     *
+     * @return the encoded statement
+     */
+    @Benchmark
+    public byte[] compiled() {
+        return template.render(data);
+    }
+}
@@ -0,0 +1,152 @@
+package theater.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.calculator.PlayTypeRegistry;
+import theater.data.ColumnarStatementData;
+import theater.io.BinaryInvoiceWriter;
+import theater.io.InvoiceReader;
+import theater.io.MappedInvoiceReader;
+
+/**
+ * Reads the same invoices from a JSON file and from a binary file per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngestionBenchmark {
+
+    private static final int PERFORMANCES_PER_INVOICE = 10;
+
+    @Param({"1000", "100000"})
+    private int invoices;
+
+    private Map<String, Play> plays;
+    private Path json;
+    private Path binary;
+
+    /**
+     * Writes the invoices to temporary JSON and binary files.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        plays = BenchmarkData.plays();
+        final List<Invoice> generated = new ArrayList<>(invoices);
+        for (int i = 0; i < invoices; i++) {
+            generated.add(BenchmarkData.invoice(PERFORMANCES_PER_INVOICE, i));
+        }
+
+        json = Files.createTempFile("invoices", ".json");
+        Files.write(json, toJson(generated).getBytes(StandardCharsets.UTF_8));
+        binary = Files.createTempFile("invoices", ".bin");
+        BinaryInvoiceWriter.write(generated, binary);
+    }
+
+    /**
+     * Deletes the temporary files.
+     *
+     * @throws IOException if the files cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(binary);
+    }
+
+    private static String toJson(List<Invoice> invoices) {
+        final StringBuilder result = new StringBuilder("[");
+        for (final Invoice invoice : invoices) {
+            if (result.length() > 1) {
+                result.append(',');
+            }
+            result.append("{\"customer\":\"").append(invoice.getCustomer()).append("\",\"performances\":[");
+            String separator = "";
+            for (final Performance performance : invoice.getPerformances()) {
+                result.append(separator).append("{\"playID\":\"").append(performance.getPlayID())
+                        .append("\",\"audience\":").append(performance.getAudience()).append('}');
+                separator = ",";
+            }
+            result.append("]}");
+        }
+        return result.append(']').toString();
+    }
+
+    /**
+     * Parses every invoice from JSON.
+     *
+     * @param blackhole consumes the invoices
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void jsonInvoices(Blackhole blackhole) throws IOException {
+        InvoiceReader.read(json, blackhole::consume);
+    }
+
+    /**
+     * Decodes every invoice from the mapped binary file.
+     *
+     * @param blackhole consumes the invoices
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void binaryInvoices(Blackhole blackhole) throws IOException {
+        final MappedInvoiceReader reader = MappedInvoiceReader.open(binary);
+        while (reader.nextInvoice()) {
+            blackhole.consume(reader.readInvoice());
+        }
+    }
+
+    /**
+     * Parses every invoice from JSON and prices it into column arrays.
+     *
+     * @param blackhole consumes the statement data
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void jsonStatementData(Blackhole blackhole) throws IOException {
+        InvoiceReader.read(json, invoice -> blackhole.consume(new ColumnarStatementData(invoice, plays)));
+    }
+
+    /**
+     * Prices every invoice straight from the mapped binary file.
+     *
+     * @param blackhole consumes the statement data
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void binaryStatementData(Blackhole blackhole) throws IOException {
+        final MappedInvoiceReader reader = MappedInvoiceReader.open(binary);
+        while (reader.nextInvoice()) {
+            blackhole.consume(reader.readStatementData(plays, PlayTypeRegistry.getDefault()));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package theater.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import theater.Invoice;
+import theater.Play;
+import theater.StatementFormat;
+import theater.StatementPrinter;
+import theater.data.ColumnarStatementData;
+
+/**
+ * Renders plain text and HTML statements, with and without the calculation phase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"10", "1000"})
+    private int performances;
+
+    @Param({"PLAIN_TEXT", "HTML"})
+    private StatementFormat format;
+
+    private Map<String, Play> plays;
+    private Invoice invoice;
+    private StatementPrinter printer;
+    private ColumnarStatementData data;
+    private OutputStream sink;
+
+    /**
+     * Generates the invoice and a printer whose data is already computed.
+     */
+    @Setup
+    public void setUp() {
+        plays = BenchmarkData.plays();
+        invoice = BenchmarkData.invoice(performances, performances);
+        printer = format.printer(invoice, plays);
+        data = new ColumnarStatementData(invoice, plays);
+        sink = OutputStream.nullOutputStream();
+    }
+
+    /**
+     * Renders already computed statement data.
+     *
+     * @return the statement
+     */
+    @Benchmark
+    public String render() {
+        return printer.statement();
+    }
+
+    /**
+     * Computes and renders the statement, as a caller of the printer does.
+     *
+     * @return the statement
+     */
+    @Benchmark
+    public String endToEnd() {
+        return format.printer(invoice, plays).statement();
+    }
+
+    /**
+     * Renders already computed statement data with the shared renderer of the format.
+     *
+     * @return the statement
+     */
+    @Benchmark
+    public String renderer() {
+        return format.renderer().render(data);
+    }
+
+    /**
+     * Renders already computed statement data as UTF-8 onto a stream through the thread's buffers.
+     *
+     * @throws IOException never, the stream discards everything
+     */
+    @Benchmark
+    public void rendererToStream() throws IOException {
+        format.renderer().render(data, sink, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package theater.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import theater.Invoice;
+import theater.data.PlayCatalog;
+import theater.report.ReportEngine;
+import theater.report.RevenueReport;
+
+/**
+ * Prices a batch of invoices and rolls them up into one revenue report per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final int PERFORMANCES = 20;
+    private static final int CUSTOMERS = 500;
+
+    @Param({"1000", "100000"})
+    private int invoices;
+
+    private List<Invoice> batch;
+    private PlayCatalog catalog;
+    private ReportEngine engine;
+
+    /**
+     * Generates the invoices of the batch.
+     */
+    @Setup
+    public void setUp() {
+        batch = new ArrayList<>(invoices);
+        for (int i = 0; i < invoices; i++) {
+            batch.add(BenchmarkData.invoice(PERFORMANCES, i % CUSTOMERS));
+        }
+        catalog = new PlayCatalog(BenchmarkData.plays());
+        engine = new ReportEngine(catalog);
+    }
+
+    /**
+     * Builds the report on the calling thread.
+     *
+     * @return the report
+     */
+    @Benchmark
+    public RevenueReport sequential() {
+        return batch.stream().collect(RevenueReport.invoiceCollector(catalog));
+    }
+
+    /**
+     * Builds the report on the common pool, merging one accumulator per worker.
+     *
+     * @return the report
+     */
+    @Benchmark
+    public RevenueReport parallel() {
+        return engine.report(batch.stream());
+    }
+}
@@ -0,0 +1,94 @@
+package theater.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import theater.Invoice;
+import theater.Play;
+import theater.data.ColumnarStatementData;
+import theater.data.PlayCatalog;
+import theater.data.ResolvedInvoice;
+import theater.data.StatementData;
+
+/**
+ * Computes the statement data of a whole invoice per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementDataBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int performances;
+
+    private Map<String, Play> plays;
+    private Invoice invoice;
+    private PlayCatalog catalog;
+    private ResolvedInvoice resolved;
+
+    /**
+     * Generates the invoice that is computed.
+     */
+    @Setup
+    public void setUp() {
+        plays = BenchmarkData.plays();
+        invoice = BenchmarkData.invoice(performances, performances);
+        catalog = new PlayCatalog(plays);
+        resolved = catalog.resolve(invoice);
+    }
+
+    /**
+     * Prices every line of the invoice.
+     *
+     * @return the computed data
+     */
+    @Benchmark
+    public StatementData compute() {
+        return new StatementData(invoice, plays);
+    }
+
+    /**
+     * Prices every line of the invoice into column arrays.
+     *
+     * @return the computed data
+     */
+    @Benchmark
+    public ColumnarStatementData computeColumnar() {
+        return new ColumnarStatementData(invoice, plays);
+    }
+
+    /**
+     * Resolves the invoice against a compiled catalog and prices it by index.
+     *
+     * @return the computed data
+     */
+    @Benchmark
+    public ColumnarStatementData computeCatalog() {
+        return new ColumnarStatementData(catalog.resolve(invoice));
+    }
+
+    /**
+     * Prices an invoice that was resolved in advance.
+     *
+     * @return the computed data
+     */
+    @Benchmark
+    public ColumnarStatementData computeResolved() {
+        return new ColumnarStatementData(resolved);
+    }
+}
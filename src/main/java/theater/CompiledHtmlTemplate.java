@@ -0,0 +1,303 @@
+package theater;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import theater.data.LineCursor;
+import theater.data.StatementView;
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
+
+/**
+ * Renders the same markup as {@link HTMLStatementPrinter} straight to UTF-8 bytes.
+ * The static fragments of the template are encoded once, when the template is created;
+ * rendering copies them into a per-thread buffer that is reused from one statement to the next,
+ * and encodes only the customer, the play names and the numbers. Customer and play names are escaped.
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class CompiledHtmlTemplate {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+
+    private final byte[] headerStart;
+    private final byte[] headerMiddle;
+    private final byte[] headerEnd;
+    private final byte[] rowStart;
+    private final byte[] cellSeparator;
+    private final byte[] rowEnd;
+    private final byte[] footerStart;
+    private final byte[] footerMiddle;
+    private final byte[] footerEnd;
+    private final CurrencyFormatter currency;
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    /**
+     * Compiles the template with the platform line separator and USD amounts,
+     * the same as {@link HTMLStatementPrinter}.
+     */
+    public CompiledHtmlTemplate() {
+        this(System.lineSeparator(), CurrencyFormatter.forLocale(Locale.US));
+    }
+
+    /**
+     * Compiles the template.
+     *
+     * @param lineSeparator the text that ends each line
+     * @param currency the formatter for amounts
+     */
+    public CompiledHtmlTemplate(String lineSeparator, CurrencyFormatter currency) {
+        this.headerStart = encode("<h1>Statement for ");
+        this.headerMiddle = encode("</h1>" + lineSeparator + "<table>" + lineSeparator
+                + " <caption>Statement for ");
+        this.headerEnd = encode("</caption>" + lineSeparator
+                + " <tr><th>play</th><th>seats</th><th>cost</th></tr>" + lineSeparator);
+        this.rowStart = encode(" <tr><td>");
+        this.cellSeparator = encode("</td><td>");
+        this.rowEnd = encode("</td></tr>" + lineSeparator);
+        this.footerStart = encode("</table>" + lineSeparator + "<p>Amount owed is <em>");
+        this.footerMiddle = encode("</em></p>" + lineSeparator + "<p>You earned <em>");
+        this.footerEnd = encode("</em> credits</p>" + lineSeparator);
+        this.currency = currency;
+    }
+
+    private static byte[] encode(String fragment) {
+        return fragment.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders a statement to UTF-8 bytes.
+     *
+     * @param data the computed statement data
+     * @return the encoded statement
+     */
+    public byte[] render(StatementView data) {
+        final Buffer buffer = fill(data);
+        final byte[] result = Arrays.copyOf(buffer.bytes, buffer.size);
+        release(buffer);
+        return result;
+    }
+
+    /**
+     * Renders a statement as UTF-8 onto a stream with a single write.
+     * The stream is neither flushed nor closed.
+     *
+     * @param data the computed statement data
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void render(StatementView data, OutputStream out) throws IOException {
+        final Buffer buffer = fill(data);
+        try {
+            out.write(buffer.bytes, 0, buffer.size);
+        }
+        finally {
+            release(buffer);
+        }
+    }
+
+    private Buffer fill(StatementView data) {
+        // creating the cursor prices the lines of lazy data, so that rendering is timed on its own
+        final LineCursor line = data.cursor();
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final Buffer buffer = buffers.get();
+        buffer.size = 0;
+        buffer.highSurrogate = 0;
+        final String customer = data.getCustomer();
+        buffer.write(headerStart);
+        buffer.appendEscaped(customer);
+        buffer.write(headerMiddle);
+        buffer.appendEscaped(customer);
+        buffer.write(headerEnd);
+
+        while (line.next()) {
+            buffer.write(rowStart);
+            buffer.appendEscaped(line.getPlayName());
+            buffer.write(cellSeparator);
+            buffer.writeDecimal(line.getAudience());
+            buffer.write(cellSeparator);
+            buffer.appendCurrency(currency, line.getAmountCents());
+            buffer.write(rowEnd);
+        }
+
+        buffer.write(footerStart);
+        buffer.appendCurrency(currency, data.getTotalAmountCents());
+        buffer.write(footerMiddle);
+        buffer.writeDecimal(data.getTotalVolumeCredits());
+        buffer.write(footerEnd);
+        if (metrics.isEnabled()) {
+            metrics.statementRendered(CompiledHtmlTemplate.class.getSimpleName(), System.nanoTime() - start);
+            metrics.statementSize(CompiledHtmlTemplate.class.getSimpleName(), buffer.size);
+        }
+        return buffer;
+    }
+
+    /**
+     * Drops a buffer that an unusually large statement has grown, so it is not kept for the thread's lifetime.
+     *
+     * @param buffer the buffer that was just used
+     */
+    private void release(Buffer buffer) {
+        if (buffer.bytes.length > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+        }
+    }
+
+    /**
+     * Growable byte array that encodes characters appended to it as UTF-8.
+     */
+    private static final class Buffer implements Appendable {
+
+        private static final int RADIX = 10;
+        private static final int ONE_BYTE_LIMIT = 0x80;
+        private static final int TWO_BYTE_LIMIT = 0x800;
+        private static final int TWO_BYTE_PREFIX = 0xC0;
+        private static final int THREE_BYTE_PREFIX = 0xE0;
+        private static final int FOUR_BYTE_PREFIX = 0xF0;
+        private static final int CONTINUATION_PREFIX = 0x80;
+        private static final int CONTINUATION_MASK = 0x3F;
+        private static final int CONTINUATION_BITS = 6;
+        private static final byte REPLACEMENT = '?';
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int size;
+        private char highSurrogate;
+        private final byte[] digits = new byte[Long.toString(Long.MIN_VALUE).length()];
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void write(byte[] fragment) {
+            endText();
+            ensureCapacity(fragment.length);
+            System.arraycopy(fragment, 0, bytes, size, fragment.length);
+            size += fragment.length;
+        }
+
+        private void writeByte(int b) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) b;
+        }
+
+        private void writeDecimal(long value) {
+            endText();
+            long remaining = value;
+            int start = digits.length;
+            do {
+                digits[--start] = (byte) ('0' + Math.abs(remaining % RADIX));
+                remaining /= RADIX;
+            } while (remaining != 0);
+            if (value < 0) {
+                digits[--start] = '-';
+            }
+            ensureCapacity(digits.length - start);
+            System.arraycopy(digits, start, bytes, size, digits.length - start);
+            size += digits.length - start;
+        }
+
+        /**
+         * Replaces a high surrogate left unpaired at the end of a text field.
+         */
+        private void endText() {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                writeByte(REPLACEMENT);
+            }
+        }
+
+        private void appendEscaped(CharSequence text) {
+            if (text == null) {
+                append("null");
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                final String entity = HtmlEscaper.entity(c);
+                if (entity == null) {
+                    append(c);
+                }
+                else {
+                    append(entity);
+                }
+            }
+        }
+
+        private void appendCurrency(CurrencyFormatter formatter, long amountInCents) {
+            try {
+                formatter.append(amountInCents, this);
+            }
+            catch (IOException exception) {
+                // Buffer never throws IOException
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public Buffer append(CharSequence text) {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Buffer append(CharSequence text, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Buffer append(char c) {
+            if (highSurrogate != 0) {
+                final char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    writeCodePoint(Character.toCodePoint(high, c));
+                    return this;
+                }
+                writeByte(REPLACEMENT);
+            }
+            if (c < ONE_BYTE_LIMIT) {
+                writeByte(c);
+            }
+            else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            }
+            else if (Character.isLowSurrogate(c)) {
+                writeByte(REPLACEMENT);
+            }
+            else {
+                writeCodePoint(c);
+            }
+            return this;
+        }
+
+        private void writeCodePoint(int codePoint) {
+            if (codePoint < ONE_BYTE_LIMIT) {
+                writeByte(codePoint);
+            }
+            else if (codePoint < TWO_BYTE_LIMIT) {
+                writeByte(TWO_BYTE_PREFIX | codePoint >> CONTINUATION_BITS);
+                writeByte(CONTINUATION_PREFIX | codePoint & CONTINUATION_MASK);
+            }
+            else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                writeByte(THREE_BYTE_PREFIX | codePoint >> 2 * CONTINUATION_BITS);
+                writeByte(CONTINUATION_PREFIX | codePoint >> CONTINUATION_BITS & CONTINUATION_MASK);
+                writeByte(CONTINUATION_PREFIX | codePoint & CONTINUATION_MASK);
+            }
+            else {
+                writeByte(FOUR_BYTE_PREFIX | codePoint >> 3 * CONTINUATION_BITS);
+                writeByte(CONTINUATION_PREFIX | codePoint >> 2 * CONTINUATION_BITS & CONTINUATION_MASK);
+                writeByte(CONTINUATION_PREFIX | codePoint >> CONTINUATION_BITS & CONTINUATION_MASK);
+                writeByte(CONTINUATION_PREFIX | codePoint & CONTINUATION_MASK);
+            }
+        }
+    }
+}
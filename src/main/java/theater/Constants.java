@@ -31,7 +31,7 @@ public final class Constants {
     public static final int PASTORAL_OVER_BASE_CAPACITY_PER_PERSON = 2500;
     public static final int PASTORAL_AUDIENCE_THRESHOLD = 20;
     public static final int PASTORAL_VOLUME_CREDIT_THRESHOLD = 20;
-    public static final int PASTORAL_VOLUME_CREDIT_DIVISOR = 10;
+    public static final int PASTORAL_VOLUME_CREDIT_DIVISOR = 2;
 
     private Constants() {
 
@@ -0,0 +1,185 @@
+package theater;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
+
+/**
+ * Formats amounts in cents as currency, writing straight into the caller's buffer.
+ * Produces the same text as {@code NumberFormat.getCurrencyInstance(locale).format(cents / 100)}:
+ * cents are dropped, never rounded. Instances are immutable and cached per locale,
+ * so they can be shared by any number of threads.
+ */
+public final class CurrencyFormatter {
+
+    private static final ConcurrentMap<Locale, CurrencyFormatter> CACHE = new ConcurrentHashMap<>();
+    private static final int RADIX = 10;
+
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final int groupingSize;
+    private final int fractionDigits;
+
+    private CurrencyFormatter(DecimalFormat format) {
+        final DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        this.positivePrefix = format.getPositivePrefix();
+        this.positiveSuffix = format.getPositiveSuffix();
+        this.negativePrefix = format.getNegativePrefix();
+        this.negativeSuffix = format.getNegativeSuffix();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = symbols.getMonetaryDecimalSeparator();
+        if (format.isGroupingUsed() && format.getGroupingSize() > 0) {
+            this.groupingSize = format.getGroupingSize();
+            this.groupingSeparator = groupingSeparator(format, groupingSize);
+        }
+        else {
+            this.groupingSize = 0;
+            this.groupingSeparator = symbols.getGroupingSeparator();
+        }
+        this.fractionDigits = format.getMinimumFractionDigits();
+    }
+
+    /**
+     * Reads the grouping separator off the format's own output. Since JDK 15 currency formats group with
+     * the monetary grouping separator, which some locales (de_AT) set apart from the plain one, and the
+     * getter for it only exists from JDK 15 on.
+     *
+     * @param format the currency format
+     * @param groupingSize the digits per group, at least one
+     * @return the separator the format writes between groups
+     */
+    private static char groupingSeparator(DecimalFormat format, int groupingSize) {
+        long grouped = 1;
+        for (int i = 0; i < groupingSize; i++) {
+            grouped *= RADIX;
+        }
+        // the output is the prefix, a single leading digit, the separator, then the rest of the group
+        return format.format(grouped).charAt(format.getPositivePrefix().length() + 1);
+    }
+
+    /**
+     * Gets the formatter for the currency of the given locale.
+     *
+     * @param locale the locale whose currency format to use
+     * @return the shared formatter for that locale
+     * @throws IllegalArgumentException if the locale has no decimal currency format
+     */
+    public static CurrencyFormatter forLocale(Locale locale) {
+        return CACHE.computeIfAbsent(locale, CurrencyFormatter::create);
+    }
+
+    private static CurrencyFormatter create(Locale locale) {
+        final NumberFormat format = NumberFormat.getCurrencyInstance(locale);
+        if (!(format instanceof DecimalFormat)) {
+            throw new IllegalArgumentException("unsupported currency locale: " + locale);
+        }
+        return new CurrencyFormatter((DecimalFormat) format);
+    }
+
+    /**
+     * Formats cents into a currency string.
+     *
+     * @param amountInCents amount in cents
+     * @return formatted currency string
+     */
+    public String format(long amountInCents) {
+        return append(amountInCents, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends cents formatted as currency to a StringBuilder.
+     *
+     * @param amountInCents amount in cents
+     * @param out the builder to append to
+     * @return the same builder
+     */
+    public StringBuilder append(long amountInCents, StringBuilder out) {
+        try {
+            append(amountInCents, (Appendable) out);
+        }
+        catch (IOException exception) {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException(exception);
+        }
+        return out;
+    }
+
+    /**
+     * Appends cents formatted as currency to any Appendable.
+     *
+     * @param amountInCents amount in cents
+     * @param out the destination to append to
+     * @throws IOException if the destination cannot be written
+     */
+    public void append(long amountInCents, Appendable out) throws IOException {
+        final MetricsSink metrics = Metrics.sink();
+        if (metrics.isEnabled()) {
+            final long start = System.nanoTime();
+            appendAmount(amountInCents, out);
+            metrics.currencyFormatted(System.nanoTime() - start);
+        }
+        else {
+            appendAmount(amountInCents, out);
+        }
+    }
+
+    private void appendAmount(long amountInCents, Appendable out) throws IOException {
+        final long units = amountInCents / Constants.PERCENT_FACTOR;
+        if (units < 0) {
+            out.append(negativePrefix);
+            appendUnits(-units, out);
+            out.append(negativeSuffix);
+        }
+        else {
+            out.append(positivePrefix);
+            appendUnits(units, out);
+            out.append(positiveSuffix);
+        }
+    }
+
+    /**
+     * Appends a non-negative whole amount with grouping and zero fraction digits.
+     *
+     * @param units the whole amount to write
+     * @param out the destination to append to
+     * @throws IOException if the destination cannot be written
+     */
+    private void appendUnits(long units, Appendable out) throws IOException {
+        int digits = 1;
+        long divisor = 1;
+        while (units / divisor >= RADIX) {
+            divisor *= RADIX;
+            digits++;
+        }
+
+        long remainder = units;
+        for (int remaining = digits; remaining > 0; remaining--) {
+            out.append((char) (zeroDigit + remainder / divisor));
+            remainder %= divisor;
+            divisor /= RADIX;
+            if (groupingSize > 0 && remaining > 1 && (remaining - 1) % groupingSize == 0) {
+                out.append(groupingSeparator);
+            }
+        }
+
+        if (fractionDigits > 0) {
+            out.append(decimalSeparator);
+            for (int i = 0; i < fractionDigits; i++) {
+                out.append(zeroDigit);
+            }
+        }
+    }
+}
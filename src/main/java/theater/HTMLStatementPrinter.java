@@ -1,14 +1,13 @@
 package theater;
 
-import java.text.NumberFormat;
-import java.util.Locale;
 import java.util.Map;
 
-import theater.data.PerformanceData;
-import theater.data.StatementData;
+import theater.data.StatementView;
 
 /**
- * Statement printer that outputs HTML.
+ * Statement printer that outputs HTML through the shared {@link HTMLStatementRenderer}.
+ * Customer and play names are escaped.
+ * For serving many statements, {@link CompiledHtmlTemplate} renders the same markup straight to bytes.
  */
 public class HTMLStatementPrinter extends StatementPrinter {
 
@@ -17,55 +16,19 @@ public class HTMLStatementPrinter extends StatementPrinter {
      *
      * @param invoice the invoice to print
      * @param plays the map of play information
+     * @throws theater.data.UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
      */
     public HTMLStatementPrinter(Invoice invoice, Map<String, Play> plays) {
-        super(invoice, plays);
+        super(invoice, plays, StatementFormat.HTML.renderer());
     }
 
     /**
-     * Generates an HTML statement for this invoice.
+     * Creates an HTMLStatementPrinter for already computed statement data.
      *
-     * @return HTML formatted statement
+     * @param statementData the computed statement data
      */
-    @Override
-    public String statement() {
-        final StatementData data = getStatementData();
-
-        final StringBuilder result = new StringBuilder(
-                String.format("<h1>Statement for %s</h1>%n", data.getCustomer()));
-
-        result.append("<table>").append(System.lineSeparator());
-        result.append("<tr><th>play</th><th>seats</th><th>cost</th></tr>")
-                .append(System.lineSeparator());
-
-        for (final PerformanceData pd : data.getPerformances()) {
-            result.append(String.format(
-                    "<tr><td>%s</td><td>%s</td><td>%s</td></tr>%n",
-                    pd.getPlayName(),
-                    pd.getAudience(),
-                    formatCurrency(pd.getAmount())));
-        }
-
-        result.append("</table>").append(System.lineSeparator());
-        result.append(String.format(
-                "<p>Amount owed is <em>%s</em></p>%n",
-                formatCurrency(data.getTotalAmount())));
-
-        result.append(String.format(
-                "<p>You earned <em>%s</em> credits</p>%n",
-                data.getTotalVolumeCredits()));
-
-        return result.toString();
-    }
-
-    /**
-     * Formats cents into a USD currency string.
-     *
-     * @param amountInCents amount in cents
-     * @return formatted USD string
-     */
-    private String formatCurrency(int amountInCents) {
-        final NumberFormat frmt = NumberFormat.getCurrencyInstance(Locale.US);
-        return frmt.format(amountInCents / Constants.PERCENT_FACTOR);
+    public HTMLStatementPrinter(StatementView statementData) {
+        super(statementData, StatementFormat.HTML.renderer());
     }
 }
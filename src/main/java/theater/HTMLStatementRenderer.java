@@ -0,0 +1,47 @@
+package theater;
+
+import java.io.IOException;
+
+import theater.data.LineCursor;
+
+/**
+ * Renders statements as HTML. Customer and play names are escaped.
+ * For serving many statements as bytes, {@link CompiledHtmlTemplate} renders the same markup
+ * without going through characters.
+ */
+public class HTMLStatementRenderer extends StatementRenderer {
+
+    @Override
+    protected void appendHeader(String customer, Appendable out) throws IOException {
+        out.append("<h1>Statement for ");
+        HtmlEscaper.escape(customer, out);
+        out.append("</h1>").append(System.lineSeparator());
+        out.append("<table>").append(System.lineSeparator());
+        out.append(" <caption>Statement for ");
+        HtmlEscaper.escape(customer, out);
+        out.append("</caption>").append(System.lineSeparator());
+        out.append(" <tr><th>play</th><th>seats</th><th>cost</th></tr>").append(System.lineSeparator());
+    }
+
+    @Override
+    protected void appendLine(LineCursor line, Appendable out) throws IOException {
+        out.append(" <tr><td>");
+        HtmlEscaper.escape(line.getPlayName(), out);
+        out.append("</td><td>");
+        appendNumber(line.getAudience(), out);
+        out.append("</td><td>");
+        appendCurrency(line.getAmountCents(), out);
+        out.append("</td></tr>").append(System.lineSeparator());
+    }
+
+    @Override
+    protected void appendFooter(long totalAmount, int totalVolumeCredits, Appendable out) throws IOException {
+        out.append("</table>").append(System.lineSeparator());
+        out.append("<p>Amount owed is <em>");
+        appendCurrency(totalAmount, out);
+        out.append("</em></p>").append(System.lineSeparator());
+        out.append("<p>You earned <em>");
+        appendNumber(totalVolumeCredits, out);
+        out.append("</em> credits</p>").append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,59 @@
+package theater;
+
+import java.io.IOException;
+
+/**
+ * Escapes text for use in HTML element content and attribute values.
+ */
+final class HtmlEscaper {
+
+    private HtmlEscaper() {
+
+    }
+
+    /**
+     * Gets the entity that replaces a character, if it needs one.
+     *
+     * @param c the character to check
+     * @return the entity, or null if the character can be written as is
+     */
+    static String entity(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            case '\'':
+                return "&#39;";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Appends text with the HTML special characters replaced by entities.
+     *
+     * @param text the text to escape, written as {@code null} when null like String.valueOf does
+     * @param out the destination to append to
+     * @throws IOException if the destination cannot be written
+     */
+    static void escape(CharSequence text, Appendable out) throws IOException {
+        if (text == null) {
+            out.append("null");
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final String entity = entity(text.charAt(i));
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, text.length());
+    }
+}
@@ -4,22 +4,23 @@ import java.util.List;
 
 /**
  * Class representing an invoice for a customer.
+ * Invoices are immutable: the performances are copied into an unmodifiable list.
  */
-public class Invoice {
+public final class Invoice {
 
     private final String customer;
     private final List<Performance> performances;
 
     public Invoice(String customer, List<Performance> performances) {
         this.customer = customer;
-        this.performances = performances;
+        this.performances = List.copyOf(performances);
     }
 
-    public final String getCustomer() {
+    public String getCustomer() {
         return customer;
     }
 
-    public final List<Performance> getPerformances() {
+    public List<Performance> getPerformances() {
         return performances;
     }
 }
@@ -3,7 +3,7 @@ package theater;
 /**
  * Class representing a performance of a play.
  */
-public class Performance {
+public final class Performance {
 
     private final String playID;
     private final int audience;
@@ -3,7 +3,7 @@ package theater;
 /**
  * Class representing a play.
  */
-public class Play {
+public final class Play {
 
     private final String name;
     private final String type;
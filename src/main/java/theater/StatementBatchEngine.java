@@ -0,0 +1,90 @@
+package theater;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders statements for many invoices in parallel on a ForkJoinPool.
+ * The plays map is shared by all workers and must not be modified while a batch is running.
+ */
+public class StatementBatchEngine {
+
+    private final Map<String, Play> plays;
+    private final StatementFormat format;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a batch engine that runs on the common ForkJoinPool.
+     *
+     * @param plays the map of play information
+     * @param format the output format of the statements
+     */
+    public StatementBatchEngine(Map<String, Play> plays, StatementFormat format) {
+        this(plays, format, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a batch engine that runs on the given pool.
+     *
+     * @param plays the map of play information
+     * @param format the output format of the statements
+     * @param pool the pool that computes and renders the statements
+     */
+    public StatementBatchEngine(Map<String, Play> plays, StatementFormat format, ForkJoinPool pool) {
+        this.plays = plays;
+        this.format = format;
+        this.pool = pool;
+    }
+
+    /**
+     * Renders a statement for every invoice.
+     *
+     * @param invoices the invoices to render
+     * @return the statements, in the same order as the invoices
+     */
+    public List<String> statements(Collection<Invoice> invoices) {
+        return statements(invoices.stream());
+    }
+
+    /**
+     * Renders a statement for every invoice of the stream.
+     *
+     * @param invoices the invoices to render
+     * @return the statements, in encounter order of the stream
+     */
+    public List<String> statements(Stream<Invoice> invoices) {
+        return pool.submit(() -> invoices.parallel()
+                .map(this::statement)
+                .collect(Collectors.toList()))
+                .join();
+    }
+
+    /**
+     * Renders a statement for every invoice and hands each one to the sink as soon as it is ready.
+     * The sink is called from several worker threads at once and in no particular order.
+     *
+     * @param invoices the invoices to render
+     * @param sink receives each invoice together with its statement
+     */
+    public void forEachUnordered(Stream<Invoice> invoices, BiConsumer<Invoice, String> sink) {
+        pool.submit(() -> invoices.parallel()
+                .unordered()
+                .forEach(invoice -> sink.accept(invoice, statement(invoice))))
+                .join();
+    }
+
+    /**
+     * Computes and renders the statement for a single invoice.
+     *
+     * @param invoice the invoice to render
+     * @return the formatted statement
+     */
+    private String statement(Invoice invoice) {
+        return format.printer(invoice, plays).statement();
+    }
+}
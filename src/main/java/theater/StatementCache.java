@@ -0,0 +1,317 @@
+package theater;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches rendered statements by invoice content, the plays the invoice refers to, and output format.
+ * Because the key holds the name and type of every play an invoice refers to, replacing a play in
+ * the plays map makes the old statements unreachable at once; {@link #invalidatePlay(String)} also
+ * frees them. Entries expire after a fixed time to live, and each of several independently locked
+ * segments evicts its least recently used entry when full, so the cache holds about
+ * {@code maximumSize} statements in total. Instances are thread-safe.
+ */
+public final class StatementCache {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, Play> plays;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache for statements of the given plays.
+     *
+     * @param plays the map of play information, which may change between lookups
+     * @param maximumSize the number of statements to keep
+     * @param timeToLive how long a statement is kept after it was rendered
+     * @throws IllegalArgumentException if the size or the time to live is not positive
+     */
+    public StatementCache(Map<String, Play> plays, int maximumSize, Duration timeToLive) {
+        this(plays, maximumSize, timeToLive, System::nanoTime);
+    }
+
+    StatementCache(Map<String, Play> plays, int maximumSize, Duration timeToLive, LongSupplier ticker) {
+        if (maximumSize <= 0 || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("maximum size and time to live must be positive");
+        }
+        this.plays = plays;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.ticker = ticker;
+        this.segments = new Segment[Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize))];
+        final int segmentSize = (maximumSize + segments.length - 1) / segments.length;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Gets the statement for an invoice, rendering it only if it is not cached.
+     *
+     * @param invoice the invoice to print
+     * @param format the output format
+     * @return the statement
+     */
+    public String statement(Invoice invoice, StatementFormat format) {
+        final Key key = new Key(invoice, plays, format);
+        final Segment segment = segmentFor(key);
+        final String cached = segment.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final String statement = format.printer(invoice, plays).statement();
+        segment.put(key, statement);
+        return statement;
+    }
+
+    /**
+     * Removes every statement of an invoice that refers to a play.
+     * Call this after the play is changed in or removed from the plays map.
+     *
+     * @param playID the id of the play that changed
+     */
+    public void invalidatePlay(String playID) {
+        for (final Segment segment : segments) {
+            segment.removeIf(playID);
+        }
+    }
+
+    /**
+     * Removes every statement.
+     */
+    public void invalidateAll() {
+        for (final Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(Key key) {
+        final int hash = key.hash ^ (key.hash >>> (Integer.SIZE / 2));
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * Gets the number of statements currently cached, including expired ones not yet removed.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to render the statement.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     * @return the hit rate, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hitCount / total;
+    }
+
+    /**
+     * Gets the number of statements evicted because their segment was full.
+     *
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of statements removed because their time to live had passed.
+     *
+     * @return the expiration count
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * Gets the number of statements removed by {@link #invalidatePlay(String)} or {@link #invalidateAll()}.
+     *
+     * @return the invalidation count
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StatementCache[size=%d, hits=%d, misses=%d, hitRate=%.3f, evictions=%d, "
+                        + "expirations=%d, invalidations=%d]", size(), getHits(), getMisses(), getHitRate(),
+                getEvictions(), getExpirations(), getInvalidations());
+    }
+
+    /**
+     * Content of an invoice together with the plays it refers to and the output format.
+     */
+    private static final class Key {
+
+        private final String customer;
+        private final String[] playIDs;
+        private final int[] audiences;
+        private final String[] playNames;
+        private final String[] playTypes;
+        private final StatementFormat format;
+        private final int hash;
+
+        private Key(Invoice invoice, Map<String, Play> plays, StatementFormat format) {
+            final List<Performance> performances = invoice.getPerformances();
+            this.customer = invoice.getCustomer();
+            this.playIDs = new String[performances.size()];
+            this.audiences = new int[performances.size()];
+            this.playNames = new String[performances.size()];
+            this.playTypes = new String[performances.size()];
+            this.format = format;
+            for (int i = 0; i < playIDs.length; i++) {
+                final Performance performance = performances.get(i);
+                playIDs[i] = performance.getPlayID();
+                audiences[i] = performance.getAudience();
+                final Play play = plays.get(playIDs[i]);
+                if (play != null) {
+                    playNames[i] = play.getName();
+                    playTypes[i] = play.getType();
+                }
+            }
+            this.hash = Objects.hash(customer, format, Arrays.hashCode(playIDs), Arrays.hashCode(audiences),
+                    Arrays.hashCode(playNames), Arrays.hashCode(playTypes));
+        }
+
+        private boolean refersTo(String playID) {
+            return Arrays.asList(playIDs).contains(playID);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return hash == key.hash && format == key.format && Objects.equals(customer, key.customer)
+                    && Arrays.equals(audiences, key.audiences) && Arrays.equals(playIDs, key.playIDs)
+                    && Arrays.equals(playNames, key.playNames) && Arrays.equals(playTypes, key.playTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A rendered statement and the time it expires.
+     */
+    private static final class CachedStatement {
+
+        private final String statement;
+        private final long expiresAt;
+
+        private CachedStatement(String statement, long expiresAt) {
+            this.statement = statement;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Access-ordered map guarded by its own lock.
+     */
+    private final class Segment {
+
+        private final Map<Key, CachedStatement> entries;
+
+        private Segment(int maximumSize) {
+            this.entries = new LinkedHashMap<>(maximumSize, LOAD_FACTOR, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized String get(Key key) {
+            final CachedStatement entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (ticker.getAsLong() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.statement;
+        }
+
+        private synchronized void put(Key key, String statement) {
+            entries.put(key, new CachedStatement(statement, ticker.getAsLong() + timeToLiveNanos));
+        }
+
+        private synchronized void removeIf(String playID) {
+            final Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().refersTo(playID)) {
+                    keys.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+
+        private synchronized void clear() {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package theater;
+
+import java.util.Map;
+
+import theater.data.StatementView;
+
+/**
+ * Output formats a statement can be rendered in.
+ */
+public enum StatementFormat {
+
+    PLAIN_TEXT(new StatementRenderer()) {
+        @Override
+        public StatementPrinter printer(Invoice invoice, Map<String, Play> plays) {
+            return new StatementPrinter(invoice, plays);
+        }
+
+        @Override
+        public StatementPrinter printer(StatementView statementData) {
+            return new StatementPrinter(statementData);
+        }
+    },
+
+    HTML(new HTMLStatementRenderer()) {
+        @Override
+        public StatementPrinter printer(Invoice invoice, Map<String, Play> plays) {
+            return new HTMLStatementPrinter(invoice, plays);
+        }
+
+        @Override
+        public StatementPrinter printer(StatementView statementData) {
+            return new HTMLStatementPrinter(statementData);
+        }
+    };
+
+    private final StatementRenderer renderer;
+
+    StatementFormat(StatementRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Gets the renderer of this format, shared by every printer of the format.
+     *
+     * @return the stateless renderer
+     */
+    public StatementRenderer renderer() {
+        return renderer;
+    }
+
+    /**
+     * Creates the printer that renders an invoice in this format.
+     *
+     * @param invoice the invoice to print
+     * @param plays the map of play information
+     * @return a printer for this format
+     */
+    public abstract StatementPrinter printer(Invoice invoice, Map<String, Play> plays);
+
+    /**
+     * Creates the printer that renders already computed statement data in this format.
+     *
+     * @param statementData the computed statement data
+     * @return a printer for this format
+     */
+    public abstract StatementPrinter printer(StatementView statementData);
+}
@@ -1,166 +1,211 @@
 package theater;
 
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
-import theater.calculator.AbstractPerformanceCalculator;
-import theater.calculator.ComedyCalculator;
-import theater.calculator.HistoryCalculator;
-import theater.calculator.PastoralCalculator;
-import theater.calculator.TragedyCalculator;
+import theater.data.LineCursor;
 import theater.data.PerformanceData;
 import theater.data.StatementData;
+import theater.data.StatementView;
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
 
 /**
  * This class generates a statement for a given invoice of performances.
+ * The layout comes from a shared, stateless {@link StatementRenderer}; a printer only ties the
+ * renderer to one statement and re-renders just the changed lines after edits.
+ * A printer is not safe to share across threads: printing a statement updates its cache of rendered lines.
  */
 public class StatementPrinter {
 
-    private final StatementData statementData;
-    private final Map<String, Play> plays;
+    private final StatementView statementData;
+    private final StatementRenderer renderer;
+    /** The lines of the last statement printed, or null when the statement data cannot be edited. */
+    private Map<PerformanceData, String> renderedRows;
 
     /**
      * Creates a StatementPrinter for the given invoice and plays.
-     * All calculation is done inside StatementData.
+     * All calculation is done inside StatementData, and only once the statement is printed,
+     * but every play and play type is looked up here.
      *
      * @param invoice the invoice to print
      * @param plays the map of play information
+     * @throws theater.data.UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
      */
     public StatementPrinter(Invoice invoice, Map<String, Play> plays) {
-        this.plays = plays;
-        this.statementData = new StatementData(invoice, plays);
+        this(invoice, plays, StatementFormat.PLAIN_TEXT.renderer());
     }
 
     /**
-     * Generates a plain-text statement for this invoice.
+     * Creates a StatementPrinter for already computed statement data,
+     * such as a {@link theater.data.ColumnarStatementData}.
      *
-     * @return the formatted statement
+     * @param statementData the computed statement data
      */
-    public String statement() {
-        return renderPlainText(statementData);
+    public StatementPrinter(StatementView statementData) {
+        this(statementData, StatementFormat.PLAIN_TEXT.renderer());
     }
 
     /**
-     * Render a formatted plain text statement using precomputed data.
+     * Creates a printer for the given invoice and plays that lays the statement out with a renderer.
      *
-     * @param data the computed statement data
-     * @return formatted plain-text statement
+     * @param invoice the invoice to print
+     * @param plays the map of play information
+     * @param renderer the renderer of the statement
+     * @throws theater.data.UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
      */
-    private String renderPlainText(StatementData data) {
-        final StringBuilder result = new StringBuilder();
-        result.append("Statement for ")
-                .append(data.getCustomer())
-                .append(System.lineSeparator());
-
-        for (final PerformanceData pd : data.getPerformances()) {
-            result.append(String.format("  %s: %s (%s seats)%n",
-                    pd.getPlayName(),
-                    formatCurrency(pd.getAmount()),
-                    pd.getAudience()));
-        }
-
-        result.append(String.format(
-                "Amount owed is %s%n",
-                formatCurrency(data.getTotalAmount())));
-
-        result.append(String.format(
-                "You earned %s credits%n",
-                data.getTotalVolumeCredits()));
-
-        return result.toString();
+    protected StatementPrinter(Invoice invoice, Map<String, Play> plays, StatementRenderer renderer) {
+        this.statementData = StatementData.lazy(invoice, plays);
+        this.renderer = renderer;
+        this.renderedRows = new IdentityHashMap<>();
     }
 
     /**
-     * Formats cents into USD currency string.
+     * Creates a printer for already computed statement data that lays the statement out with a renderer.
      *
-     * @param amountInCents amount in cents
-     * @return formatted USD string
+     * @param statementData the computed statement data
+     * @param renderer the renderer of the statement
      */
-    private String formatCurrency(int amountInCents) {
-        final NumberFormat frmt = NumberFormat.getCurrencyInstance(Locale.US);
-        return frmt.format(amountInCents / Constants.PERCENT_FACTOR);
+    protected StatementPrinter(StatementView statementData, StatementRenderer renderer) {
+        this.statementData = statementData;
+        this.renderer = renderer;
+        if (statementData instanceof StatementData) {
+            this.renderedRows = new IdentityHashMap<>();
+        }
     }
 
     /**
-     * Looks up the play for a given performance.
+     * Generates the statement for this invoice.
      *
-     * @param performance the performance
-     * @return the corresponding Play
+     * @return the formatted statement
      */
-    private Play getPlay(Performance performance) {
-        return plays.get(performance.getPlayID());
+    public String statement() {
+        if (renderedRows == null) {
+            return renderer.render(getStatementData(), getClass().getSimpleName());
+        }
+        final StringBuilder result = new StringBuilder();
+        try {
+            statement(result);
+        }
+        catch (IOException exception) {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException(exception);
+        }
+        final MetricsSink metrics = Metrics.sink();
+        if (metrics.isEnabled()) {
+            metrics.statementSize(getClass().getSimpleName(), result.length());
+        }
+        return result.toString();
     }
 
     /**
-     * Calculates amount for a performance.
+     * Writes the statement for this invoice line by line as it is produced.
      *
-     * @param performance the performance
-     * @return amount in cents
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
      */
-    private int getAmount(Performance performance) {
-        return createCalculator(performance, getPlay(performance)).amount();
+    public void statement(Appendable out) throws IOException {
+        if (renderedRows == null) {
+            renderer.render(getStatementData(), out, getClass().getSimpleName());
+            return;
+        }
+        final StatementData data = (StatementData) getStatementData();
+        final LineCursor line = data.cursor();
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        renderer.appendHeader(data.getCustomer(), out);
+        appendCachedLines(data, line, out);
+        renderer.appendFooter(data.getTotalAmountCents(), data.getTotalVolumeCredits(), out);
+        if (metrics.isEnabled()) {
+            metrics.statementRendered(getClass().getSimpleName(), System.nanoTime() - start);
+        }
     }
 
     /**
-     * Calculates volume credits for a performance.
+     * Writes the performance lines, reusing the rows rendered by the previous call
+     * and rendering only the lines added since then.
      *
-     * @param performance the performance
-     * @return volume credits
+     * @param data the edited statement data
+     * @param line cursor over the lines of the data
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
      */
-    private int getVolumeCredits(Performance performance) {
-        return createCalculator(performance, getPlay(performance)).volumeCredits();
+    private void appendCachedLines(StatementData data, LineCursor line, Appendable out) throws IOException {
+        final Map<PerformanceData, String> rows = new IdentityHashMap<>();
+        for (final PerformanceData pd : data.getPerformances()) {
+            line.next();
+            String row = renderedRows.get(pd);
+            if (row == null) {
+                final StringBuilder result = new StringBuilder();
+                renderer.appendLine(line, result);
+                row = result.toString();
+            }
+            rows.put(pd, row);
+            out.append(row);
+        }
+        renderedRows = rows;
     }
 
     /**
-     * Formats cents into USD currency string.
+     * Adds a performance to the invoice of this printer.
+     * Only the new line is priced, and the next statement re-renders only the lines
+     * that changed since the previous one.
      *
-     * @param amountInCents amount in cents
-     * @return formatted USD string
+     * @param performance the performance to add
+     * @throws UnsupportedOperationException if this printer was created from precomputed data
      */
-    private String usd(int amountInCents) {
-        return formatCurrency(amountInCents);
+    public void addPerformance(Performance performance) {
+        editableStatementData().addPerformance(performance);
     }
 
     /**
-     * Total amount owed (in cents).
+     * Removes a performance line from the invoice of this printer.
      *
-     * @return total amount in cents
+     * @param index the index of the line to remove
+     * @throws UnsupportedOperationException if this printer was created from precomputed data
      */
-    private int getTotalAmount() {
-        return statementData.getTotalAmount();
+    public void removePerformance(int index) {
+        editableStatementData().removePerformance(index);
     }
 
     /**
-     * Total volume credits earned.
+     * Gets the statement data for editing.
      *
-     * @return total volume credits
+     * @return the statement data of this printer
      */
-    private int getTotalVolumeCredits() {
-        return statementData.getTotalVolumeCredits();
+    private StatementData editableStatementData() {
+        if (!(statementData instanceof StatementData)) {
+            throw new UnsupportedOperationException("statement data of this printer cannot be edited");
+        }
+        return (StatementData) statementData;
     }
 
     /**
-     * Selects the correct calculator implementation for the given play type.
+     * Encodes the statement for this invoice onto a stream as it is produced.
+     * The stream is flushed but not closed.
      *
-     * @param performance the performance being evaluated
-     * @param play the play corresponding to this performance
-     * @return the appropriate calculator implementation
-     * @throws RuntimeException if the play type is unknown
+     * @param out the stream to write to
+     * @param charset the character encoding of the output
+     * @throws IOException if the stream cannot be written
      */
-    private AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
-        switch (play.getType()) {
-            case "tragedy":
-                return new TragedyCalculator(performance, play);
-            case "comedy":
-                return new ComedyCalculator(performance, play);
-            case "history":
-                return new HistoryCalculator(performance, play);
-            case "pastoral":
-                return new PastoralCalculator(performance, play);
-            default:
-                throw new RuntimeException("unknown type: " + play.getType());
+    public void writeTo(OutputStream out, Charset charset) throws IOException {
+        if (renderedRows == null) {
+            renderer.render(getStatementData(), out, charset, getClass().getSimpleName());
+            out.flush();
+            return;
         }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+        statement(writer);
+        writer.flush();
     }
 
     /**
@@ -168,7 +213,7 @@ public class StatementPrinter {
      *
      * @return the computed statement data
      */
-    protected StatementData getStatementData() {
+    protected StatementView getStatementData() {
         return statementData;
     }
 }
@@ -0,0 +1,386 @@
+package theater;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Locale;
+
+import theater.data.LineCursor;
+import theater.data.StatementView;
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
+
+/**
+ * Renders plain-text statements. A renderer holds no state of its own, so one instance can render
+ * any number of statements from any number of threads; {@link StatementFormat#renderer()} gives the
+ * shared instance of each format. Rendering to a String goes through a buffer kept per thread, which
+ * follows the usual size of the thread's statements, so a worker that renders many statements
+ * allocates little more than the results. Rendering to a stream encodes the text in fixed-size chunks
+ * as it is produced, so its memory use does not grow with the size of the statement.
+ * Subclasses change the layout by overriding the {@code append} methods.
+ */
+public class StatementRenderer {
+
+    private static final CurrencyFormatter USD = CurrencyFormatter.forLocale(Locale.US);
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+    private static final int SHRINK_FACTOR = 4;
+    private static final int SIZE_AVERAGE_WEIGHT = 8;
+    private static final int ENCODE_CHUNK_SIZE = 2048;
+    private static final int ENCODED_CHUNK_SIZE = 8192;
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    /**
+     * Renders a statement onto a destination as it is produced.
+     *
+     * @param data the computed statement data
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    public void render(StatementView data, Appendable out) throws IOException {
+        render(data, out, getClass().getSimpleName());
+    }
+
+    /**
+     * Renders a statement to a String, using the buffer of the calling thread.
+     *
+     * @param data the computed statement data
+     * @return the formatted statement
+     */
+    public String render(StatementView data) {
+        return render(data, getClass().getSimpleName());
+    }
+
+    /**
+     * Renders a statement and encodes it onto a stream as it is produced, a chunk at a time,
+     * using the buffers of the calling thread.
+     * Characters the charset cannot encode are replaced, as by an OutputStreamWriter.
+     * The stream is neither flushed nor closed.
+     *
+     * @param data the computed statement data
+     * @param out the stream to write to
+     * @param charset the character encoding of the output
+     * @throws IOException if the stream cannot be written
+     */
+    public void render(StatementView data, OutputStream out, Charset charset) throws IOException {
+        render(data, out, charset, getClass().getSimpleName());
+    }
+
+    /**
+     * Renders a statement, reporting it to the metrics under the given name.
+     *
+     * @param data the computed statement data
+     * @param out the destination of the statement
+     * @param name the name the rendering is recorded under
+     * @throws IOException if the destination cannot be written
+     */
+    void render(StatementView data, Appendable out, String name) throws IOException {
+        // creating the cursor prices the lines of lazy data, so that rendering is timed on its own
+        final LineCursor line = data.cursor();
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        appendHeader(data.getCustomer(), out);
+        while (line.next()) {
+            appendLine(line, out);
+        }
+        appendFooter(data.getTotalAmountCents(), data.getTotalVolumeCredits(), out);
+        if (metrics.isEnabled()) {
+            metrics.statementRendered(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Renders a statement to a String, reporting it to the metrics under the given name.
+     *
+     * @param data the computed statement data
+     * @param name the name the rendering is recorded under
+     * @return the formatted statement
+     */
+    String render(StatementView data, String name) {
+        final Buffer buffer = acquire();
+        try {
+            fill(buffer, data, name);
+            return buffer.text.toString();
+        }
+        finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Renders a statement onto a stream, reporting it to the metrics under the given name.
+     *
+     * @param data the computed statement data
+     * @param out the stream to write to
+     * @param charset the character encoding of the output
+     * @param name the name the rendering is recorded under
+     * @throws IOException if the stream cannot be written
+     */
+    void render(StatementView data, OutputStream out, Charset charset, String name) throws IOException {
+        final Buffer buffer = acquire();
+        final ChunkedEncoder encoder = buffer.encoder(charset);
+        encoder.start(out);
+        try {
+            render(data, encoder, name);
+            encoder.finish();
+            final MetricsSink metrics = Metrics.sink();
+            if (metrics.isEnabled()) {
+                metrics.statementSize(name, encoder.length);
+            }
+        }
+        finally {
+            // the stream is not kept for the lifetime of the thread
+            encoder.out = null;
+            buffer.inUse = false;
+        }
+    }
+
+    private void fill(Buffer buffer, StatementView data, String name) {
+        try {
+            render(data, buffer.text, name);
+        }
+        catch (IOException exception) {
+            // StringBuilder never throws IOException
+            throw new UncheckedIOException(exception);
+        }
+        final MetricsSink metrics = Metrics.sink();
+        if (metrics.isEnabled()) {
+            metrics.statementSize(name, buffer.text.length());
+        }
+    }
+
+    /**
+     * Takes the buffer of the calling thread, or a new one if the thread is already using it.
+     *
+     * @return an empty buffer
+     */
+    private static Buffer acquire() {
+        final Buffer buffer = BUFFERS.get();
+        if (buffer.inUse) {
+            return new Buffer();
+        }
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to its thread. A buffer that has grown well past the usual size of the
+     * thread's statements is replaced by a smaller one, so one unusually large statement is not
+     * kept for the thread's lifetime.
+     *
+     * @param buffer the buffer that was just used
+     */
+    private static void release(Buffer buffer) {
+        final int size = buffer.text.length();
+        buffer.typicalSize += (size - buffer.typicalSize) / SIZE_AVERAGE_WEIGHT;
+        final int usual = Math.max(buffer.typicalSize, INITIAL_BUFFER_SIZE);
+        if (buffer.text.capacity() > MAX_RETAINED_BUFFER_SIZE || buffer.text.capacity() > SHRINK_FACTOR * usual) {
+            buffer.text = new StringBuilder(Math.min(2 * usual, MAX_RETAINED_BUFFER_SIZE));
+        }
+        else {
+            buffer.text.setLength(0);
+        }
+        buffer.inUse = false;
+    }
+
+    /**
+     * Writes the lines that come before the performances.
+     *
+     * @param customer the customer name
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    protected void appendHeader(String customer, Appendable out) throws IOException {
+        out.append("Statement for ").append(customer).append(System.lineSeparator());
+    }
+
+    /**
+     * Writes the line for a single performance.
+     *
+     * @param line cursor positioned on the computed performance line
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    protected void appendLine(LineCursor line, Appendable out) throws IOException {
+        out.append("  ").append(line.getPlayName()).append(": ");
+        appendCurrency(line.getAmountCents(), out);
+        out.append(" (");
+        appendNumber(line.getAudience(), out);
+        out.append(" seats)").append(System.lineSeparator());
+    }
+
+    /**
+     * Writes the totals that come after the performances.
+     *
+     * @param totalAmount total amount owed in cents
+     * @param totalVolumeCredits total volume credits earned
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    protected void appendFooter(long totalAmount, int totalVolumeCredits, Appendable out) throws IOException {
+        out.append("Amount owed is ");
+        appendCurrency(totalAmount, out);
+        out.append(System.lineSeparator());
+        out.append("You earned ");
+        appendNumber(totalVolumeCredits, out);
+        out.append(" credits").append(System.lineSeparator());
+    }
+
+    /**
+     * Writes cents as a USD currency string.
+     *
+     * @param amountInCents amount in cents
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    protected void appendCurrency(long amountInCents, Appendable out) throws IOException {
+        USD.append(amountInCents, out);
+    }
+
+    /**
+     * Writes a whole number, without creating a String when the destination is a StringBuilder.
+     *
+     * @param value the number to write
+     * @param out the destination of the statement
+     * @throws IOException if the destination cannot be written
+     */
+    protected static void appendNumber(long value, Appendable out) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        }
+        else {
+            out.append(Long.toString(value));
+        }
+    }
+
+    /**
+     * Text of the statement being rendered, and the encoder of the thread's streamed statements.
+     */
+    private static final class Buffer {
+
+        private StringBuilder text = new StringBuilder(INITIAL_BUFFER_SIZE);
+        private int typicalSize = INITIAL_BUFFER_SIZE;
+        private boolean inUse;
+        private ChunkedEncoder encoder;
+
+        private ChunkedEncoder encoder(Charset charset) {
+            if (encoder == null || !encoder.encoder.charset().equals(charset)) {
+                encoder = new ChunkedEncoder(charset);
+            }
+            return encoder;
+        }
+    }
+
+    /**
+     * Encodes appended text onto a stream whenever a fixed-size chunk of it is full.
+     */
+    private static final class ChunkedEncoder implements Appendable {
+
+        private final char[] chunk = new char[ENCODE_CHUNK_SIZE];
+        private final CharBuffer chars = CharBuffer.wrap(chunk);
+        private final ByteBuffer bytes = ByteBuffer.allocate(ENCODED_CHUNK_SIZE);
+        private final CharsetEncoder encoder;
+        private OutputStream out;
+        private long length;
+
+        private ChunkedEncoder(Charset charset) {
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        private void start(OutputStream destination) {
+            encoder.reset();
+            chars.clear();
+            bytes.clear();
+            out = destination;
+            length = 0;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            final CharSequence text = csq == null ? "null" : csq;
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if (csq == null) {
+                return append("null", start, end);
+            }
+            int next = start;
+            while (next < end) {
+                final int count = Math.min(chars.remaining(), end - next);
+                final int position = chars.position();
+                if (csq instanceof String) {
+                    ((String) csq).getChars(next, next + count, chunk, position);
+                }
+                else {
+                    for (int i = 0; i < count; i++) {
+                        chunk[position + i] = csq.charAt(next + i);
+                    }
+                }
+                chars.position(position + count);
+                next += count;
+                if (!chars.hasRemaining()) {
+                    encodeChunk(false);
+                }
+            }
+            length += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            chars.put(c);
+            if (!chars.hasRemaining()) {
+                encodeChunk(false);
+            }
+            length++;
+            return this;
+        }
+
+        /**
+         * Encodes the characters gathered so far. A high surrogate at the end of the chunk stays
+         * at the start of the next one until its low surrogate arrives.
+         *
+         * @param last whether no more text follows
+         * @throws IOException if the stream cannot be written
+         */
+        private void encodeChunk(boolean last) throws IOException {
+            chars.flip();
+            CoderResult result = encoder.encode(chars, bytes, last);
+            while (result.isOverflow()) {
+                drain();
+                result = encoder.encode(chars, bytes, last);
+            }
+            chars.compact();
+        }
+
+        /**
+         * Encodes what is left of the text and writes all of it to the stream.
+         *
+         * @throws IOException if the stream cannot be written
+         */
+        private void finish() throws IOException {
+            encodeChunk(true);
+            CoderResult result = encoder.flush(bytes);
+            while (result.isOverflow()) {
+                drain();
+                result = encoder.flush(bytes);
+            }
+            drain();
+        }
+
+        private void drain() throws IOException {
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
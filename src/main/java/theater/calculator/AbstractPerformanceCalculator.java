@@ -45,9 +45,20 @@ public abstract class AbstractPerformanceCalculator {
      * Calculates the amount owed for this performance (in cents).
      *
      * @return amount in cents
+     * @throws ArithmeticException if the amount does not fit in an int
      */
     public abstract int amount();
 
+    /**
+     * Calculates the amount owed for this performance (in cents) without the int range limit.
+     * Calculators that only implement {@link #amount()} are widened from it.
+     *
+     * @return amount in cents
+     */
+    public long amountCents() {
+        return amount();
+    }
+
     /**
      * Calculates the volume credits earned for this performance.
      *
@@ -1,6 +1,5 @@
 package theater.calculator;
 
-import theater.Constants;
 import theater.Performance;
 import theater.Play;
 
@@ -21,21 +20,16 @@ public class ComedyCalculator extends AbstractPerformanceCalculator {
 
     @Override
     public int amount() {
-        int result = Constants.COMEDY_BASE_AMOUNT;
-
-        if (getPerformance().getAudience() > Constants.COMEDY_AUDIENCE_THRESHOLD) {
-            result += Constants.COMEDY_OVER_BASE_CAPACITY_AMOUNT
-                    + Constants.COMEDY_OVER_BASE_CAPACITY_PER_PERSON
-                    * (getPerformance().getAudience() - Constants.COMEDY_AUDIENCE_THRESHOLD);
-        }
+        return Math.toIntExact(amountCents());
+    }
 
-        result += Constants.COMEDY_AMOUNT_PER_AUDIENCE * getPerformance().getAudience();
-        return result;
+    @Override
+    public long amountCents() {
+        return StandardPricing.COMEDY.amount(getPerformance().getAudience());
     }
 
     @Override
     public int volumeCredits() {
-        return super.volumeCredits()
-                + getPerformance().getAudience() / Constants.COMEDY_EXTRA_VOLUME_FACTOR;
+        return StandardPricing.COMEDY.volumeCredits(getPerformance().getAudience());
     }
 }
@@ -1,6 +1,5 @@
 package theater.calculator;
 
-import theater.Constants;
 import theater.Performance;
 import theater.Play;
 
@@ -26,12 +25,12 @@ public class HistoryCalculator extends AbstractPerformanceCalculator {
      */
     @Override
     public int amount() {
-        int result = Constants.HISTORY_BASE_AMOUNT;
-        if (getPerformance().getAudience() > Constants.HISTORY_AUDIENCE_THRESHOLD) {
-            result += Constants.HISTORY_OVER_BASE_CAPACITY_PER_PERSON
-                    * (getPerformance().getAudience() - Constants.HISTORY_AUDIENCE_THRESHOLD);
-        }
-        return result;
+        return Math.toIntExact(amountCents());
+    }
+
+    @Override
+    public long amountCents() {
+        return StandardPricing.HISTORY.amount(getPerformance().getAudience());
     }
 
     /**
@@ -41,6 +40,6 @@ public class HistoryCalculator extends AbstractPerformanceCalculator {
      */
     @Override
     public int volumeCredits() {
-        return Math.max(getPerformance().getAudience() - Constants.HISTORY_VOLUME_CREDIT_THRESHOLD, 0);
+        return StandardPricing.HISTORY.volumeCredits(getPerformance().getAudience());
     }
 }
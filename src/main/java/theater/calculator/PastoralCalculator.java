@@ -1,6 +1,5 @@
 package theater.calculator;
 
-import theater.Constants;
 import theater.Performance;
 import theater.Play;
 
@@ -26,12 +25,12 @@ public class PastoralCalculator extends AbstractPerformanceCalculator {
      */
     @Override
     public int amount() {
-        int result = Constants.PASTORAL_BASE_AMOUNT;
-        if (getPerformance().getAudience() > Constants.PASTORAL_AUDIENCE_THRESHOLD) {
-            result += Constants.PASTORAL_OVER_BASE_CAPACITY_PER_PERSON
-                    * (getPerformance().getAudience() - Constants.PASTORAL_AUDIENCE_THRESHOLD);
-        }
-        return result;
+        return Math.toIntExact(amountCents());
+    }
+
+    @Override
+    public long amountCents() {
+        return StandardPricing.PASTORAL.amount(getPerformance().getAudience());
     }
 
     /**
@@ -41,11 +40,6 @@ public class PastoralCalculator extends AbstractPerformanceCalculator {
      */
     @Override
     public int volumeCredits() {
-        return Math.max(
-                getPerformance().getAudience()
-                        - Constants.PASTORAL_VOLUME_CREDIT_THRESHOLD,
-                0)
-                + getPerformance().getAudience()
-                / Constants.PASTORAL_VOLUME_CREDIT_DIVISOR;
+        return StandardPricing.PASTORAL.volumeCredits(getPerformance().getAudience());
     }
 }
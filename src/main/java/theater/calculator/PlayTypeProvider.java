@@ -0,0 +1,35 @@
+package theater.calculator;
+
+import theater.Performance;
+import theater.Play;
+
+/**
+ * Service interface for a play type that can be priced.
+ * Custom genres are plugged in by listing their implementations in
+ * {@code META-INF/services/theater.calculator.PlayTypeProvider}.
+ */
+public interface PlayTypeProvider {
+
+    /**
+     * Gets the play type name this provider handles, as it appears in {@link Play#getType()}.
+     *
+     * @return the play type name
+     */
+    String getType();
+
+    /**
+     * Gets the stateless pricing rules for this play type.
+     *
+     * @return the pricing strategy
+     */
+    PricingStrategy getPricing();
+
+    /**
+     * Creates a calculator for one performance of this play type.
+     *
+     * @param performance the performance
+     * @param play the play being performed
+     * @return a calculator for the performance
+     */
+    AbstractPerformanceCalculator createCalculator(Performance performance, Play play);
+}
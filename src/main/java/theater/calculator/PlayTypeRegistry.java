@@ -0,0 +1,216 @@
+package theater.calculator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import theater.Performance;
+import theater.Play;
+
+/**
+ * Dispatch table from play type names to their pricing and calculators.
+ * The table is built once and never modified afterwards, so a registry can be shared freely between threads.
+ */
+public final class PlayTypeRegistry {
+
+    private static final PlayTypeRegistry DEFAULT = load(PlayTypeRegistry.class.getClassLoader());
+
+    private final Map<String, PlayTypeProvider> providers;
+
+    private PlayTypeRegistry(Map<String, PlayTypeProvider> providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * Gets the registry of the built-in play types plus every provider found on the class path.
+     *
+     * @return the default registry
+     */
+    public static PlayTypeRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Builds a registry of the built-in play types plus every provider visible to the class loader.
+     * A discovered provider replaces a built-in play type of the same name.
+     *
+     * @param classLoader the class loader used to discover providers
+     * @return the new registry
+     */
+    public static PlayTypeRegistry load(ClassLoader classLoader) {
+        final Map<String, PlayTypeProvider> providers = new HashMap<>();
+        for (StandardPricing pricing : StandardPricing.values()) {
+            providers.put(pricing.getType(), pricing);
+        }
+        for (PlayTypeProvider provider : ServiceLoader.load(PlayTypeProvider.class, classLoader)) {
+            providers.put(provider.getType(), provider);
+        }
+        return new PlayTypeRegistry(providers);
+    }
+
+    /**
+     * Creates a registry that prices every play type from precomputed tables,
+     * see {@link PricingTable}. Calculators are still created by the original providers.
+     *
+     * @param maxAudience the largest audience kept in each table
+     * @return the new registry
+     * @throws IllegalArgumentException if maxAudience is negative or above {@link PricingTable#MAX_TABLE_AUDIENCE}
+     */
+    public PlayTypeRegistry withPricingTables(int maxAudience) {
+        return withPricingTables(maxAudience, false);
+    }
+
+    /**
+     * Creates a registry that prices every play type from precomputed tables,
+     * optionally counting the lookups of each table.
+     *
+     * @param maxAudience the largest audience kept in each table
+     * @param countLookups whether each table counts its hits and misses
+     * @return the new registry
+     * @throws IllegalArgumentException if maxAudience is negative or above {@link PricingTable#MAX_TABLE_AUDIENCE}
+     */
+    public PlayTypeRegistry withPricingTables(int maxAudience, boolean countLookups) {
+        final Map<String, PlayTypeProvider> tabulated = new HashMap<>();
+        for (PlayTypeProvider provider : providers.values()) {
+            tabulated.put(provider.getType(), new TabulatedProvider(provider,
+                    new PricingTable(provider.getPricing(), maxAudience, countLookups)));
+        }
+        return new PlayTypeRegistry(tabulated);
+    }
+
+    /**
+     * Creates a registry in which the given play types are priced by the given strategies,
+     * with calculators that delegate to them. Other play types are unchanged, and a type
+     * that is not yet in this registry is added.
+     *
+     * @param pricing map of play type name to its pricing
+     * @return the new registry
+     */
+    public PlayTypeRegistry withPricing(Map<String, ? extends PricingStrategy> pricing) {
+        final Map<String, PlayTypeProvider> replaced = new HashMap<>(providers);
+        pricing.forEach((type, strategy) -> replaced.put(type, new StrategyProvider(type, strategy)));
+        return new PlayTypeRegistry(replaced);
+    }
+
+    /**
+     * Gets the names of the play types in this registry.
+     *
+     * @return unmodifiable set of play type names
+     */
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+
+    /**
+     * Looks up the provider for a play type.
+     *
+     * @param type the play type name
+     * @return the provider for that type
+     * @throws RuntimeException if the play type is unknown
+     */
+    public PlayTypeProvider lookup(String type) {
+        final PlayTypeProvider provider = providers.get(type);
+        if (provider == null) {
+            throw new RuntimeException("unknown type: " + type);
+        }
+        return provider;
+    }
+
+    /**
+     * Looks up the pricing strategy for a play type.
+     *
+     * @param type the play type name
+     * @return the pricing strategy for that type
+     * @throws RuntimeException if the play type is unknown
+     */
+    public PricingStrategy pricingFor(String type) {
+        return lookup(type).getPricing();
+    }
+
+    /**
+     * Creates the calculator matching the type of the given play.
+     *
+     * @param performance the performance being evaluated
+     * @param play the play corresponding to this performance
+     * @return the appropriate calculator implementation
+     * @throws RuntimeException if the play type is unknown
+     */
+    public AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
+        return lookup(play.getType()).createCalculator(performance, play);
+    }
+
+    /**
+     * Provider of a play type that is defined by its pricing alone.
+     */
+    private static final class StrategyProvider implements PlayTypeProvider {
+
+        private final String type;
+        private final PricingStrategy pricing;
+
+        private StrategyProvider(String type, PricingStrategy pricing) {
+            this.type = type;
+            this.pricing = pricing;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public PricingStrategy getPricing() {
+            return pricing;
+        }
+
+        @Override
+        public AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
+            return new AbstractPerformanceCalculator(performance, play) {
+                @Override
+                public int amount() {
+                    return Math.toIntExact(amountCents());
+                }
+
+                @Override
+                public long amountCents() {
+                    return pricing.amount(getPerformance().getAudience());
+                }
+
+                @Override
+                public int volumeCredits() {
+                    return pricing.volumeCredits(getPerformance().getAudience());
+                }
+            };
+        }
+    }
+
+    /**
+     * Provider whose pricing is replaced by a precomputed table.
+     */
+    private static final class TabulatedProvider implements PlayTypeProvider {
+
+        private final PlayTypeProvider provider;
+        private final PricingTable pricing;
+
+        private TabulatedProvider(PlayTypeProvider provider, PricingTable pricing) {
+            this.provider = provider;
+            this.pricing = pricing;
+        }
+
+        @Override
+        public String getType() {
+            return provider.getType();
+        }
+
+        @Override
+        public PricingStrategy getPricing() {
+            return pricing;
+        }
+
+        @Override
+        public AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
+            return provider.createCalculator(performance, play);
+        }
+    }
+}
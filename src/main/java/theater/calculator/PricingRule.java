@@ -0,0 +1,254 @@
+package theater.calculator;
+
+import java.util.Objects;
+
+/**
+ * Pricing strategy whose rates are data instead of code, as read from a {@link RateCard}.
+ * <pre>
+ * amount  = base + perPerson * audience
+ *         + (audience &gt; threshold ? overThresholdAmount + perPersonOverThreshold * (audience - capacity) : 0)
+ * credits = max(audience - creditThreshold, 0) + (creditDivisor &gt; 0 ? audience / creditDivisor : 0)
+ * </pre>
+ * The built-in play types are all special cases; {@code capacity} defaults to {@code threshold}.
+ * Thresholds and the capacity cannot be negative, and audiences are subtracted in long arithmetic,
+ * so the single and bulk methods agree for every int audience.
+ * The rates are final fields of a final class, so a rule is as cheap to call as the hand-written strategies,
+ * and it is immutable and can be shared by any number of threads.
+ */
+public final class PricingRule implements PricingStrategy {
+
+    private final long base;
+    private final int threshold;
+    private final int capacity;
+    private final long overThresholdAmount;
+    private final long perPersonOverThreshold;
+    private final long perPerson;
+    private final int creditThreshold;
+    private final int creditDivisor;
+
+    private PricingRule(Builder builder) {
+        this.base = builder.base;
+        this.threshold = builder.threshold;
+        this.capacity = builder.capacity;
+        this.overThresholdAmount = builder.overThresholdAmount;
+        this.perPersonOverThreshold = builder.perPersonOverThreshold;
+        this.perPerson = builder.perPerson;
+        this.creditThreshold = builder.creditThreshold;
+        this.creditDivisor = builder.creditDivisor;
+    }
+
+    /**
+     * Starts a rule; every rate is zero until it is set.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public long amount(int audience) {
+        long result = base + perPerson * audience;
+        if (audience > threshold) {
+            result += overThresholdAmount + perPersonOverThreshold * ((long) audience - capacity);
+        }
+        return result;
+    }
+
+    @Override
+    public int volumeCredits(int audience) {
+        int result = Math.max(audience - creditThreshold, 0);
+        if (creditDivisor > 0) {
+            result += audience / creditDivisor;
+        }
+        return result;
+    }
+
+    @Override
+    public void amounts(int[] audiences, long[] out) {
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        final long capacityOffset = (long) threshold - capacity;
+        for (int i = 0; i < audiences.length; i++) {
+            final int audience = audiences[i];
+            final long over = (long) Math.max(audience, threshold) - threshold;
+            final long passed = Math.min(over, 1);
+            out[i] = base + perPerson * audience + passed * overThresholdAmount
+                    + perPersonOverThreshold * (over + passed * capacityOffset);
+        }
+    }
+
+    @Override
+    public void volumeCredits(int[] audiences, int[] out) {
+        if (creditDivisor > 0) {
+            PricingStrategy.super.volumeCredits(audiences, out);
+            return;
+        }
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        for (int i = 0; i < audiences.length; i++) {
+            out[i] = Math.max(audiences[i] - creditThreshold, 0);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PricingRule)) {
+            return false;
+        }
+        final PricingRule rule = (PricingRule) other;
+        return base == rule.base && threshold == rule.threshold && capacity == rule.capacity
+                && overThresholdAmount == rule.overThresholdAmount
+                && perPersonOverThreshold == rule.perPersonOverThreshold && perPerson == rule.perPerson
+                && creditThreshold == rule.creditThreshold && creditDivisor == rule.creditDivisor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(base, threshold, capacity, overThresholdAmount, perPersonOverThreshold, perPerson,
+                creditThreshold, creditDivisor);
+    }
+
+    @Override
+    public String toString() {
+        return "PricingRule[base=" + base + ", threshold=" + threshold + ", capacity=" + capacity
+                + ", overThresholdAmount=" + overThresholdAmount + ", perPersonOverThreshold=" + perPersonOverThreshold
+                + ", perPerson=" + perPerson + ", creditThreshold=" + creditThreshold
+                + ", creditDivisor=" + creditDivisor + "]";
+    }
+
+    /**
+     * Collects the rates of a rule.
+     */
+    public static final class Builder {
+
+        private long base;
+        private int threshold;
+        private Integer capacityOverride;
+        private int capacity;
+        private long overThresholdAmount;
+        private long perPersonOverThreshold;
+        private long perPerson;
+        private int creditThreshold;
+        private int creditDivisor;
+
+        private Builder() {
+
+        }
+
+        /**
+         * Sets the amount owed for any audience (in cents).
+         *
+         * @param amount the base amount
+         * @return this builder
+         */
+        public Builder base(long amount) {
+            this.base = amount;
+            return this;
+        }
+
+        /**
+         * Sets the audience above which the over-threshold rates apply.
+         *
+         * @param audience the threshold audience
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is negative
+         */
+        public Builder threshold(int audience) {
+            this.threshold = notNegative("threshold", audience);
+            return this;
+        }
+
+        /**
+         * Sets the audience from which the over-threshold rate per person is counted,
+         * if it differs from the threshold.
+         *
+         * @param audience the capacity
+         * @return this builder
+         * @throws IllegalArgumentException if the capacity is negative
+         */
+        public Builder capacity(int audience) {
+            this.capacityOverride = notNegative("capacity", audience);
+            return this;
+        }
+
+        /**
+         * Sets the flat amount added once the threshold is passed (in cents).
+         *
+         * @param amount the flat amount
+         * @return this builder
+         */
+        public Builder overThresholdAmount(long amount) {
+            this.overThresholdAmount = amount;
+            return this;
+        }
+
+        /**
+         * Sets the amount per person above the capacity, once the threshold is passed (in cents).
+         *
+         * @param amount the amount per person
+         * @return this builder
+         */
+        public Builder perPersonOverThreshold(long amount) {
+            this.perPersonOverThreshold = amount;
+            return this;
+        }
+
+        /**
+         * Sets the amount per person of the whole audience (in cents).
+         *
+         * @param amount the amount per person
+         * @return this builder
+         */
+        public Builder perPerson(long amount) {
+            this.perPerson = amount;
+            return this;
+        }
+
+        /**
+         * Sets the audience above which each person earns a volume credit.
+         *
+         * @param audience the credit threshold
+         * @return this builder
+         */
+        public Builder creditThreshold(int audience) {
+            this.creditThreshold = audience;
+            return this;
+        }
+
+        /**
+         * Sets the number of people that earn one extra volume credit, or 0 for no extra credits.
+         *
+         * @param audience the credit divisor
+         * @return this builder
+         * @throws IllegalArgumentException if the divisor is negative
+         */
+        public Builder creditDivisor(int audience) {
+            this.creditDivisor = notNegative("credit divisor", audience);
+            return this;
+        }
+
+        private static int notNegative(String rate, int audience) {
+            if (audience < 0) {
+                throw new IllegalArgumentException(rate + " must not be negative: " + audience);
+            }
+            return audience;
+        }
+
+        /**
+         * Compiles the rule.
+         *
+         * @return the rule
+         */
+        public PricingRule build() {
+            if (capacityOverride == null) {
+                capacity = threshold;
+            }
+            else {
+                capacity = capacityOverride;
+            }
+            return new PricingRule(this);
+        }
+    }
+}
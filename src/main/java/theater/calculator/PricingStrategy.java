@@ -0,0 +1,62 @@
+package theater.calculator;
+
+import java.util.Objects;
+
+import theater.Constants;
+
+/**
+ * Stateless pricing rules for one play type.
+ * Implementations work on primitives only so that a single shared instance
+ * can price every performance of its type without allocating.
+ * The bulk methods price whole arrays of audiences of this type; they must give
+ * the same results as the per-audience methods.
+ */
+public interface PricingStrategy {
+
+    /**
+     * Calculates the amount owed for a performance (in cents).
+     * Amounts are longs so that large audiences and aggregated totals cannot wrap around.
+     *
+     * @param audience the audience of the performance
+     * @return amount in cents
+     */
+    long amount(int audience);
+
+    /**
+     * Calculates the volume credits earned for a performance.
+     *
+     * @param audience the audience of the performance
+     * @return volume credits
+     */
+    default int volumeCredits(int audience) {
+        return Math.max(audience - Constants.BASE_VOLUME_CREDIT_THRESHOLD, 0);
+    }
+
+    /**
+     * Calculates the amount owed for every audience (in cents).
+     *
+     * @param audiences the audiences of the performances
+     * @param out receives the amount of {@code audiences[i]} at index i
+     * @throws IndexOutOfBoundsException if out is shorter than audiences
+     */
+    default void amounts(int[] audiences, long[] out) {
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        for (int i = 0; i < audiences.length; i++) {
+            out[i] = amount(audiences[i]);
+        }
+    }
+
+    /**
+     * Calculates the volume credits earned for every audience.
+     *
+     * @param audiences the audiences of the performances
+     * @param out receives the credits of {@code audiences[i]} at index i
+     * @throws IndexOutOfBoundsException if out is shorter than audiences
+     */
+    default void volumeCredits(int[] audiences, int[] out) {
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        for (int i = 0; i < audiences.length; i++) {
+            out[i] = volumeCredits(audiences[i]);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package theater.calculator;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pricing strategy that looks results up in tables precomputed from another strategy.
+ * Audiences from zero up to a fixed maximum are a single array read;
+ * any other audience falls back to the wrapped strategy.
+ * The tables never change after construction, so one instance can be shared by all threads.
+ * Counting hits and misses is opt-in, since the shared counters would cost more than the lookup itself.
+ */
+public final class PricingTable implements PricingStrategy {
+
+    /**
+     * The largest maxAudience a table accepts. Its two tables then take 12 MiB;
+     * larger audiences are better left to the wrapped strategy.
+     */
+    public static final int MAX_TABLE_AUDIENCE = 1 << 20;
+
+    private final PricingStrategy delegate;
+    private final long[] amounts;
+    private final int[] volumeCredits;
+    private final boolean counting;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Precomputes the results of a strategy for every audience up to the maximum.
+     *
+     * @param delegate the strategy to tabulate
+     * @param maxAudience the largest audience kept in the table
+     * @throws IllegalArgumentException if maxAudience is negative or above {@link #MAX_TABLE_AUDIENCE}
+     */
+    public PricingTable(PricingStrategy delegate, int maxAudience) {
+        this(delegate, maxAudience, false);
+    }
+
+    /**
+     * Precomputes the results of a strategy for every audience up to the maximum,
+     * optionally counting the lookups answered from the table and those that fell back.
+     *
+     * @param delegate the strategy to tabulate
+     * @param maxAudience the largest audience kept in the table
+     * @param countLookups whether {@link #getHits()} and {@link #getMisses()} are kept
+     * @throws IllegalArgumentException if maxAudience is negative or above {@link #MAX_TABLE_AUDIENCE}
+     */
+    public PricingTable(PricingStrategy delegate, int maxAudience, boolean countLookups) {
+        if (maxAudience < 0) {
+            throw new IllegalArgumentException("maxAudience must not be negative: " + maxAudience);
+        }
+        if (maxAudience > MAX_TABLE_AUDIENCE) {
+            throw new IllegalArgumentException("maxAudience must not be above " + MAX_TABLE_AUDIENCE + ": "
+                    + maxAudience);
+        }
+        this.delegate = delegate;
+        this.counting = countLookups;
+        this.amounts = new long[maxAudience + 1];
+        this.volumeCredits = new int[maxAudience + 1];
+        for (int audience = 0; audience <= maxAudience; audience++) {
+            amounts[audience] = delegate.amount(audience);
+            volumeCredits[audience] = delegate.volumeCredits(audience);
+        }
+    }
+
+    @Override
+    public long amount(int audience) {
+        if (audience >= 0 && audience < amounts.length) {
+            if (counting) {
+                hits.increment();
+            }
+            return amounts[audience];
+        }
+        if (counting) {
+            misses.increment();
+        }
+        return delegate.amount(audience);
+    }
+
+    @Override
+    public int volumeCredits(int audience) {
+        if (audience >= 0 && audience < volumeCredits.length) {
+            if (counting) {
+                hits.increment();
+            }
+            return volumeCredits[audience];
+        }
+        if (counting) {
+            misses.increment();
+        }
+        return delegate.volumeCredits(audience);
+    }
+
+    @Override
+    public void amounts(int[] audiences, long[] out) {
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        int found = 0;
+        for (int i = 0; i < audiences.length; i++) {
+            final int audience = audiences[i];
+            if (audience >= 0 && audience < amounts.length) {
+                out[i] = amounts[audience];
+                found++;
+            }
+            else {
+                out[i] = delegate.amount(audience);
+            }
+        }
+        if (counting) {
+            hits.add(found);
+            misses.add(audiences.length - found);
+        }
+    }
+
+    @Override
+    public void volumeCredits(int[] audiences, int[] out) {
+        Objects.checkFromIndexSize(0, audiences.length, out.length);
+        int found = 0;
+        for (int i = 0; i < audiences.length; i++) {
+            final int audience = audiences[i];
+            if (audience >= 0 && audience < volumeCredits.length) {
+                out[i] = volumeCredits[audience];
+                found++;
+            }
+            else {
+                out[i] = delegate.volumeCredits(audience);
+            }
+        }
+        if (counting) {
+            hits.add(found);
+            misses.add(audiences.length - found);
+        }
+    }
+
+    /**
+     * Gets the largest audience kept in the table.
+     *
+     * @return the maximum tabulated audience
+     */
+    public int getMaxAudience() {
+        return amounts.length - 1;
+    }
+
+    /**
+     * Gets the number of lookups answered from the table.
+     *
+     * @return the hit count, or 0 if lookups are not counted
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that fell back to the wrapped strategy.
+     *
+     * @return the miss count, or 0 if lookups are not counted
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,179 @@
+package theater.calculator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import theater.Constants;
+
+/**
+ * Pricing rules per play type, loaded from a properties file such as:
+ * <pre>
+ * # every amount is in cents
+ * tragedy.base = 40000
+ * tragedy.threshold = 30
+ * tragedy.perPersonOverThreshold = 1000
+ * tragedy.creditThreshold = 30
+ * </pre>
+ * Each play type needs {@code base}, {@code threshold}, {@code perPersonOverThreshold} and
+ * {@code creditThreshold}; {@code capacity}, {@code overThresholdAmount}, {@code perPerson} and
+ * {@code creditDivisor} are optional, see {@link PricingRule}. Unknown keys are rejected so that
+ * a misspelt rate cannot silently fall back to zero. Rate cards are immutable.
+ */
+public final class RateCard {
+
+    private static final Set<String> REQUIRED = Set.of("base", "threshold", "perPersonOverThreshold",
+            "creditThreshold");
+    private static final Map<String, BiConsumer<PricingRule.Builder, Long>> SETTERS = setters();
+
+    private final Map<String, PricingRule> rules;
+
+    private RateCard(Map<String, PricingRule> rules) {
+        this.rules = Collections.unmodifiableMap(rules);
+    }
+
+    private static Map<String, BiConsumer<PricingRule.Builder, Long>> setters() {
+        final Map<String, BiConsumer<PricingRule.Builder, Long>> setters = new HashMap<>();
+        setters.put("base", PricingRule.Builder::base);
+        setters.put("threshold", (rule, value) -> rule.threshold(Math.toIntExact(value)));
+        setters.put("capacity", (rule, value) -> rule.capacity(Math.toIntExact(value)));
+        setters.put("overThresholdAmount", PricingRule.Builder::overThresholdAmount);
+        setters.put("perPersonOverThreshold", PricingRule.Builder::perPersonOverThreshold);
+        setters.put("perPerson", PricingRule.Builder::perPerson);
+        setters.put("creditThreshold", (rule, value) -> rule.creditThreshold(Math.toIntExact(value)));
+        setters.put("creditDivisor", (rule, value) -> rule.creditDivisor(Math.toIntExact(value)));
+        return setters;
+    }
+
+    /**
+     * Gets the rate card that reproduces the built-in pricing from {@link Constants}.
+     *
+     * @return the standard rate card
+     */
+    public static RateCard standard() {
+        final Map<String, PricingRule> rules = new TreeMap<>();
+        rules.put(StandardPricing.TRAGEDY.getType(), PricingRule.builder()
+                .base(Constants.TRAGEDY_BASE_AMOUNT)
+                .threshold(Constants.TRAGEDY_AUDIENCE_THRESHOLD)
+                .capacity(Constants.TRAGEDY_BASE_CAPACITY)
+                .perPersonOverThreshold(Constants.TRAGEDY_OVER_BASE_CAPACITY_PER_PERSON)
+                .creditThreshold(Constants.BASE_VOLUME_CREDIT_THRESHOLD)
+                .build());
+        rules.put(StandardPricing.COMEDY.getType(), PricingRule.builder()
+                .base(Constants.COMEDY_BASE_AMOUNT)
+                .threshold(Constants.COMEDY_AUDIENCE_THRESHOLD)
+                .overThresholdAmount(Constants.COMEDY_OVER_BASE_CAPACITY_AMOUNT)
+                .perPersonOverThreshold(Constants.COMEDY_OVER_BASE_CAPACITY_PER_PERSON)
+                .perPerson(Constants.COMEDY_AMOUNT_PER_AUDIENCE)
+                .creditThreshold(Constants.BASE_VOLUME_CREDIT_THRESHOLD)
+                .creditDivisor(Constants.COMEDY_EXTRA_VOLUME_FACTOR)
+                .build());
+        rules.put(StandardPricing.HISTORY.getType(), PricingRule.builder()
+                .base(Constants.HISTORY_BASE_AMOUNT)
+                .threshold(Constants.HISTORY_AUDIENCE_THRESHOLD)
+                .perPersonOverThreshold(Constants.HISTORY_OVER_BASE_CAPACITY_PER_PERSON)
+                .creditThreshold(Constants.HISTORY_VOLUME_CREDIT_THRESHOLD)
+                .build());
+        rules.put(StandardPricing.PASTORAL.getType(), PricingRule.builder()
+                .base(Constants.PASTORAL_BASE_AMOUNT)
+                .threshold(Constants.PASTORAL_AUDIENCE_THRESHOLD)
+                .perPersonOverThreshold(Constants.PASTORAL_OVER_BASE_CAPACITY_PER_PERSON)
+                .creditThreshold(Constants.PASTORAL_VOLUME_CREDIT_THRESHOLD)
+                .creditDivisor(Constants.PASTORAL_VOLUME_CREDIT_DIVISOR)
+                .build());
+        return new RateCard(rules);
+    }
+
+    /**
+     * Loads a rate card from a UTF-8 properties file.
+     *
+     * @param path the rate card file
+     * @return the compiled rate card
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a rate is missing, unknown or not an integer
+     */
+    public static RateCard load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Reads a rate card in the properties format.
+     *
+     * @param source the properties text; it is not closed
+     * @return the compiled rate card
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if a rate is missing, unknown or not an integer
+     */
+    public static RateCard parse(Reader source) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(source);
+
+        final Map<String, Map<String, Long>> rates = new TreeMap<>();
+        for (final String key : properties.stringPropertyNames()) {
+            final int dot = key.lastIndexOf('.');
+            final String rate = key.substring(dot + 1);
+            if (dot <= 0 || !SETTERS.containsKey(rate)) {
+                throw new IllegalArgumentException("unknown rate: " + key);
+            }
+            final String value = properties.getProperty(key).trim();
+            try {
+                rates.computeIfAbsent(key.substring(0, dot), type -> new LinkedHashMap<>())
+                        .put(rate, Long.parseLong(value));
+            }
+            catch (NumberFormatException exception) {
+                throw new IllegalArgumentException("rate " + key + " is not an integer: " + value, exception);
+            }
+        }
+
+        final Map<String, PricingRule> rules = new TreeMap<>();
+        for (final Map.Entry<String, Map<String, Long>> type : rates.entrySet()) {
+            for (final String rate : REQUIRED) {
+                if (!type.getValue().containsKey(rate)) {
+                    throw new IllegalArgumentException("missing rate: " + type.getKey() + "." + rate);
+                }
+            }
+            final PricingRule.Builder builder = PricingRule.builder();
+            try {
+                type.getValue().forEach((rate, value) -> SETTERS.get(rate).accept(builder, value));
+                rules.put(type.getKey(), builder.build());
+            }
+            catch (ArithmeticException | IllegalArgumentException exception) {
+                throw new IllegalArgumentException("invalid rates for " + type.getKey() + ": "
+                        + exception.getMessage(), exception);
+            }
+        }
+        return new RateCard(rules);
+    }
+
+    /**
+     * Gets the rules of this rate card.
+     *
+     * @return unmodifiable map of play type to rule
+     */
+    public Map<String, PricingRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Creates a registry that prices the play types of this rate card by its rules,
+     * and every other play type as the base registry does.
+     *
+     * @param base the registry to start from
+     * @return the new registry
+     */
+    public PlayTypeRegistry registry(PlayTypeRegistry base) {
+        return base.withPricing(rules);
+    }
+}
@@ -0,0 +1,86 @@
+package theater.calculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry whose pricing comes from a rate card file that can be changed while the
+ * application runs. {@link #reload()} compiles the whole file before swapping it in,
+ * so a reader of {@link #get()} sees either the old rules or the new ones, never a mix,
+ * and a broken file leaves the current rules in place.
+ */
+public final class ReloadableRegistry {
+
+    private final Path rateCard;
+    private final PlayTypeRegistry base;
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+
+    /**
+     * Loads the rate card on top of a base registry.
+     *
+     * @param rateCard the rate card file
+     * @param base the registry that prices play types missing from the rate card
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the rate card is invalid
+     */
+    public ReloadableRegistry(Path rateCard, PlayTypeRegistry base) throws IOException {
+        this.rateCard = rateCard;
+        this.base = base;
+        reload();
+    }
+
+    /**
+     * Gets the registry compiled from the last rate card that loaded successfully.
+     *
+     * @return the current registry
+     */
+    public PlayTypeRegistry get() {
+        return current.get().registry;
+    }
+
+    /**
+     * Reads and compiles the rate card file, then swaps it in.
+     *
+     * @return the new registry
+     * @throws IOException if the file cannot be read; the current registry is kept
+     * @throws IllegalArgumentException if the rate card is invalid; the current registry is kept
+     */
+    public PlayTypeRegistry reload() throws IOException {
+        final FileTime modified = Files.getLastModifiedTime(rateCard);
+        final Loaded loaded = new Loaded(RateCard.load(rateCard).registry(base), modified);
+        current.set(loaded);
+        return loaded.registry;
+    }
+
+    /**
+     * Reloads the rate card if its file changed since it was last loaded.
+     *
+     * @return whether the rate card was reloaded
+     * @throws IOException if the file cannot be read; the current registry is kept
+     * @throws IllegalArgumentException if the rate card is invalid; the current registry is kept
+     */
+    public boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(rateCard).equals(current.get().modified)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * A compiled registry with the modification time of the file it came from.
+     */
+    private static final class Loaded {
+
+        private final PlayTypeRegistry registry;
+        private final FileTime modified;
+
+        private Loaded(PlayTypeRegistry registry, FileTime modified) {
+            this.registry = registry;
+            this.modified = modified;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package theater.calculator;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import theater.Constants;
+import theater.Performance;
+import theater.Play;
+
+/**
+ * Pricing strategies for the built-in play types.
+ * The bulk methods are written without branches, using {@link Math#max} and {@link Math#min}
+ * instead of the threshold tests, so that the JIT can compile them to vector instructions.
+ * {@code Math.max(audience, threshold) - threshold} is the audience over the threshold,
+ * and {@code Math.min(over, 1)} is 1 exactly when the threshold was passed.
+ */
+public enum StandardPricing implements PricingStrategy, PlayTypeProvider {
+
+    TRAGEDY("tragedy", TragedyCalculator::new) {
+        @Override
+        public long amount(int audience) {
+            long result = Constants.TRAGEDY_BASE_AMOUNT;
+            if (audience > Constants.TRAGEDY_AUDIENCE_THRESHOLD) {
+                result += (long) Constants.TRAGEDY_OVER_BASE_CAPACITY_PER_PERSON
+                        * (audience - Constants.TRAGEDY_BASE_CAPACITY);
+            }
+            return result;
+        }
+
+        @Override
+        public void amounts(int[] audiences, long[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int over = Math.max(audiences[i], Constants.TRAGEDY_AUDIENCE_THRESHOLD)
+                        - Constants.TRAGEDY_AUDIENCE_THRESHOLD;
+                final int passed = Math.min(over, 1);
+                out[i] = Constants.TRAGEDY_BASE_AMOUNT + (long) Constants.TRAGEDY_OVER_BASE_CAPACITY_PER_PERSON
+                        * (over + (long) passed
+                        * (Constants.TRAGEDY_AUDIENCE_THRESHOLD - Constants.TRAGEDY_BASE_CAPACITY));
+            }
+        }
+
+        @Override
+        public void volumeCredits(int[] audiences, int[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                out[i] = Math.max(audiences[i] - Constants.BASE_VOLUME_CREDIT_THRESHOLD, 0);
+            }
+        }
+    },
+
+    COMEDY("comedy", ComedyCalculator::new) {
+        @Override
+        public long amount(int audience) {
+            long result = Constants.COMEDY_BASE_AMOUNT;
+            if (audience > Constants.COMEDY_AUDIENCE_THRESHOLD) {
+                result += Constants.COMEDY_OVER_BASE_CAPACITY_AMOUNT
+                        + (long) Constants.COMEDY_OVER_BASE_CAPACITY_PER_PERSON
+                        * (audience - Constants.COMEDY_AUDIENCE_THRESHOLD);
+            }
+            result += (long) Constants.COMEDY_AMOUNT_PER_AUDIENCE * audience;
+            return result;
+        }
+
+        @Override
+        public int volumeCredits(int audience) {
+            return super.volumeCredits(audience) + audience / Constants.COMEDY_EXTRA_VOLUME_FACTOR;
+        }
+
+        @Override
+        public void amounts(int[] audiences, long[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int audience = audiences[i];
+                final int over = Math.max(audience, Constants.COMEDY_AUDIENCE_THRESHOLD)
+                        - Constants.COMEDY_AUDIENCE_THRESHOLD;
+                final int passed = Math.min(over, 1);
+                out[i] = Constants.COMEDY_BASE_AMOUNT
+                        + (long) passed * Constants.COMEDY_OVER_BASE_CAPACITY_AMOUNT
+                        + (long) Constants.COMEDY_OVER_BASE_CAPACITY_PER_PERSON * over
+                        + (long) Constants.COMEDY_AMOUNT_PER_AUDIENCE * audience;
+            }
+        }
+
+        @Override
+        public void volumeCredits(int[] audiences, int[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int audience = audiences[i];
+                out[i] = Math.max(audience - Constants.BASE_VOLUME_CREDIT_THRESHOLD, 0)
+                        + audience / Constants.COMEDY_EXTRA_VOLUME_FACTOR;
+            }
+        }
+    },
+
+    HISTORY("history", HistoryCalculator::new) {
+        @Override
+        public long amount(int audience) {
+            long result = Constants.HISTORY_BASE_AMOUNT;
+            if (audience > Constants.HISTORY_AUDIENCE_THRESHOLD) {
+                result += (long) Constants.HISTORY_OVER_BASE_CAPACITY_PER_PERSON
+                        * (audience - Constants.HISTORY_AUDIENCE_THRESHOLD);
+            }
+            return result;
+        }
+
+        @Override
+        public int volumeCredits(int audience) {
+            return Math.max(audience - Constants.HISTORY_VOLUME_CREDIT_THRESHOLD, 0);
+        }
+
+        @Override
+        public void amounts(int[] audiences, long[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int over = Math.max(audiences[i], Constants.HISTORY_AUDIENCE_THRESHOLD)
+                        - Constants.HISTORY_AUDIENCE_THRESHOLD;
+                out[i] = Constants.HISTORY_BASE_AMOUNT + (long) Constants.HISTORY_OVER_BASE_CAPACITY_PER_PERSON * over;
+            }
+        }
+
+        @Override
+        public void volumeCredits(int[] audiences, int[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                out[i] = Math.max(audiences[i] - Constants.HISTORY_VOLUME_CREDIT_THRESHOLD, 0);
+            }
+        }
+    },
+
+    PASTORAL("pastoral", PastoralCalculator::new) {
+        @Override
+        public long amount(int audience) {
+            long result = Constants.PASTORAL_BASE_AMOUNT;
+            if (audience > Constants.PASTORAL_AUDIENCE_THRESHOLD) {
+                result += (long) Constants.PASTORAL_OVER_BASE_CAPACITY_PER_PERSON
+                        * (audience - Constants.PASTORAL_AUDIENCE_THRESHOLD);
+            }
+            return result;
+        }
+
+        @Override
+        public int volumeCredits(int audience) {
+            return Math.max(audience - Constants.PASTORAL_VOLUME_CREDIT_THRESHOLD, 0)
+                    + audience / Constants.PASTORAL_VOLUME_CREDIT_DIVISOR;
+        }
+
+        @Override
+        public void amounts(int[] audiences, long[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int over = Math.max(audiences[i], Constants.PASTORAL_AUDIENCE_THRESHOLD)
+                        - Constants.PASTORAL_AUDIENCE_THRESHOLD;
+                out[i] = Constants.PASTORAL_BASE_AMOUNT
+                        + (long) Constants.PASTORAL_OVER_BASE_CAPACITY_PER_PERSON * over;
+            }
+        }
+
+        @Override
+        public void volumeCredits(int[] audiences, int[] out) {
+            Objects.checkFromIndexSize(0, audiences.length, out.length);
+            for (int i = 0; i < audiences.length; i++) {
+                final int audience = audiences[i];
+                out[i] = Math.max(audience - Constants.PASTORAL_VOLUME_CREDIT_THRESHOLD, 0)
+                        + audience / Constants.PASTORAL_VOLUME_CREDIT_DIVISOR;
+            }
+        }
+    };
+
+    private final String type;
+    private final BiFunction<Performance, Play, AbstractPerformanceCalculator> calculatorFactory;
+
+    StandardPricing(String type, BiFunction<Performance, Play, AbstractPerformanceCalculator> calculatorFactory) {
+        this.type = type;
+        this.calculatorFactory = calculatorFactory;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public PricingStrategy getPricing() {
+        return this;
+    }
+
+    @Override
+    public AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
+        return calculatorFactory.apply(performance, play);
+    }
+}
@@ -1,6 +1,5 @@
 package theater.calculator;
 
-import theater.Constants;
 import theater.Performance;
 import theater.Play;
 
@@ -21,11 +20,11 @@ public class TragedyCalculator extends AbstractPerformanceCalculator {
 
     @Override
     public int amount() {
-        int result = Constants.TRAGEDY_BASE_AMOUNT;
-        if (getPerformance().getAudience() > Constants.TRAGEDY_AUDIENCE_THRESHOLD) {
-            result += Constants.TRAGEDY_OVER_BASE_CAPACITY_PER_PERSON
-                    * (getPerformance().getAudience() - Constants.TRAGEDY_BASE_CAPACITY);
-        }
-        return result;
+        return Math.toIntExact(amountCents());
+    }
+
+    @Override
+    public long amountCents() {
+        return StandardPricing.TRAGEDY.amount(getPerformance().getAudience());
     }
 }
@@ -0,0 +1,312 @@
+package theater.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.calculator.PlayTypeRegistry;
+import theater.calculator.PricingStrategy;
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
+
+/**
+ * Computed statement data stored column by column in primitive arrays.
+ * Each line refers to its play by index into a table holding every distinct play once,
+ * so a large invoice costs a few int arrays instead of one object per line.
+ * Instances are immutable once constructed.
+ */
+public final class ColumnarStatementData implements StatementView {
+
+    private final String customer;
+    private final Play[] playTable;
+    private final int[] playIndexes;
+    private final int[] audiences;
+    private final long[] amounts;
+    private final int[] volumeCredits;
+    private final long totalAmount;
+    private final int totalVolumeCredits;
+
+    /**
+     * Construct a ColumnarStatementData and compute all results
+     * from the invoice and associated plays.
+     *
+     * @param invoice the invoice to compute
+     * @param plays map of playID to Play objects
+     */
+    public ColumnarStatementData(Invoice invoice, Map<String, Play> plays) {
+        this(invoice, plays, PlayTypeRegistry.getDefault());
+    }
+
+    /**
+     * Construct a ColumnarStatementData and compute all results, resolving play types
+     * through the given registry instead of the default one.
+     *
+     * @param invoice the invoice to compute
+     * @param plays map of playID to Play objects
+     * @param registry the registry that prices each play type
+     */
+    public ColumnarStatementData(Invoice invoice, Map<String, Play> plays, PlayTypeRegistry registry) {
+        this(builder(invoice, plays, registry));
+    }
+
+    /**
+     * Construct a ColumnarStatementData and compute all results from an invoice
+     * resolved against a catalog. The lines share the catalog's play table and
+     * are priced by index, without any map lookup.
+     *
+     * @param invoice the resolved invoice to compute
+     */
+    public ColumnarStatementData(ResolvedInvoice invoice) {
+        this(invoice.getCustomer(), invoice.getCatalog().plays(), invoice.getCatalog().pricing(),
+                invoice.playIndexes(), invoice.audiences());
+    }
+
+    private ColumnarStatementData(Builder builder) {
+        this(builder.customer, builder.playTable.toArray(new Play[0]),
+                builder.pricingTable.toArray(new PricingStrategy[0]),
+                Arrays.copyOf(builder.playIndexes, builder.size), Arrays.copyOf(builder.audiences, builder.size));
+    }
+
+    private ColumnarStatementData(String customer, Play[] playTable, PricingStrategy[] pricing,
+                                  int[] playIndexes, int[] audiences) {
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final int size = audiences.length;
+        this.customer = customer;
+        this.playTable = playTable;
+        this.playIndexes = playIndexes;
+        this.audiences = audiences;
+
+        this.amounts = new long[size];
+        this.volumeCredits = new int[size];
+        long amount = 0;
+        int credits = 0;
+        for (int i = 0; i < size; i++) {
+            final PricingStrategy strategy = pricing[playIndexes[i]];
+            amounts[i] = strategy.amount(audiences[i]);
+            volumeCredits[i] = strategy.volumeCredits(audiences[i]);
+            amount = Math.addExact(amount, amounts[i]);
+            credits = Math.addExact(credits, volumeCredits[i]);
+        }
+        this.totalAmount = amount;
+        this.totalVolumeCredits = credits;
+        if (metrics.isEnabled()) {
+            recordPricing(metrics, start);
+        }
+    }
+
+    /**
+     * Reports the time spent pricing and the lines priced per play type.
+     *
+     * @param metrics the enabled sink
+     * @param start the value of {@link System#nanoTime()} when pricing started
+     */
+    private void recordPricing(MetricsSink metrics, long start) {
+        metrics.statementPriced(System.nanoTime() - start);
+        final int[] lines = new int[playTable.length];
+        for (final int index : playIndexes) {
+            lines[index]++;
+        }
+        for (int i = 0; i < playTable.length; i++) {
+            if (lines[i] > 0) {
+                metrics.linesPriced(playTable[i].getType(), lines[i]);
+            }
+        }
+    }
+
+    private static Builder builder(Invoice invoice, Map<String, Play> plays, PlayTypeRegistry registry) {
+        final List<Performance> source = invoice.getPerformances();
+        final Builder builder = new Builder(invoice.getCustomer(), plays, registry, source.size());
+        for (final Performance performance : source) {
+            builder.add(performance.getPlayID(), performance.getAudience());
+        }
+        return builder;
+    }
+
+    @Override
+    public String getCustomer() {
+        return customer;
+    }
+
+    @Override
+    public long getTotalAmountCents() {
+        return totalAmount;
+    }
+
+    @Override
+    public int getTotalVolumeCredits() {
+        return totalVolumeCredits;
+    }
+
+    /**
+     * Gets the number of lines in this statement.
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        return audiences.length;
+    }
+
+    /**
+     * Gets the play of a line.
+     *
+     * @param line the line index
+     * @return the play performed on that line
+     */
+    public Play getPlay(int line) {
+        return playTable[playIndexes[line]];
+    }
+
+    /**
+     * Gets the audience of a line.
+     *
+     * @param line the line index
+     * @return the audience
+     */
+    public int getAudience(int line) {
+        return audiences[line];
+    }
+
+    /**
+     * Gets the amount owed for a line (in cents).
+     *
+     * @param line the line index
+     * @return amount in cents
+     */
+    public long getAmountCents(int line) {
+        return amounts[line];
+    }
+
+    /**
+     * Gets the volume credits earned by a line.
+     *
+     * @param line the line index
+     * @return volume credits
+     */
+    public int getVolumeCredits(int line) {
+        return volumeCredits[line];
+    }
+
+    @Override
+    public LineCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Flyweight that reads the current line straight out of the column arrays.
+     */
+    private final class Cursor implements LineCursor {
+
+        private int line = -1;
+
+        @Override
+        public boolean next() {
+            line++;
+            return line < audiences.length;
+        }
+
+        @Override
+        public String getPlayName() {
+            return getPlay(line).getName();
+        }
+
+        @Override
+        public String getPlayType() {
+            return getPlay(line).getType();
+        }
+
+        @Override
+        public int getAudience() {
+            return audiences[line];
+        }
+
+        @Override
+        public long getAmountCents() {
+            return amounts[line];
+        }
+
+        @Override
+        public int getVolumeCredits() {
+            return volumeCredits[line];
+        }
+    }
+
+    /**
+     * Collects the lines of a statement one at a time, for sources that do not
+     * hold their performances as {@link Performance} objects.
+     */
+    public static final class Builder {
+
+        private final String customer;
+        private final Map<String, Play> plays;
+        private final PlayTypeRegistry registry;
+        private final Map<String, Integer> indexByPlayID = new HashMap<>();
+        private final List<Play> playTable = new ArrayList<>();
+        private final List<PricingStrategy> pricingTable = new ArrayList<>();
+        private int[] playIndexes;
+        private int[] audiences;
+        private int size;
+
+        /**
+         * Starts a statement for a customer.
+         *
+         * @param customer the customer name
+         * @param plays map of playID to Play objects
+         * @param registry the registry that prices each play type
+         * @param expectedSize the expected number of lines
+         */
+        public Builder(String customer, Map<String, Play> plays, PlayTypeRegistry registry, int expectedSize) {
+            this.customer = customer;
+            this.plays = plays;
+            this.registry = registry;
+            this.playIndexes = new int[Math.max(expectedSize, 1)];
+            this.audiences = new int[Math.max(expectedSize, 1)];
+        }
+
+        /**
+         * Appends a line.
+         *
+         * @param playID the id of the play performed
+         * @param audience the audience of the performance
+         * @return this builder
+         * @throws UnknownPlayException if the play is not in the plays map
+         * @throws RuntimeException if the play type is unknown
+         */
+        public Builder add(String playID, int audience) {
+            Integer index = indexByPlayID.get(playID);
+            if (index == null) {
+                final Play play = plays.get(playID);
+                if (play == null) {
+                    throw new UnknownPlayException(customer, List.of(playID));
+                }
+                index = playTable.size();
+                indexByPlayID.put(playID, index);
+                playTable.add(play);
+                pricingTable.add(registry.pricingFor(play.getType()));
+            }
+            if (size == audiences.length) {
+                playIndexes = Arrays.copyOf(playIndexes, size * 2);
+                audiences = Arrays.copyOf(audiences, size * 2);
+            }
+            playIndexes[size] = index;
+            audiences[size] = audience;
+            size++;
+            return this;
+        }
+
+        /**
+         * Prices every line added so far.
+         *
+         * @return the computed statement data
+         * @throws ArithmeticException if a total overflows
+         */
+        public ColumnarStatementData build() {
+            return new ColumnarStatementData(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package theater.data;
+
+/**
+ * Forward-only cursor over the lines of a statement.
+ * The getters describe the current line, so one cursor object serves every line.
+ */
+public interface LineCursor {
+
+    /**
+     * Moves to the next line.
+     *
+     * @return false if there are no more lines
+     */
+    boolean next();
+
+    /**
+     * Gets the name of the play of the current line.
+     *
+     * @return the play name
+     */
+    String getPlayName();
+
+    /**
+     * Gets the type of the play of the current line.
+     *
+     * @return the play type
+     */
+    String getPlayType();
+
+    /**
+     * Gets the audience of the current line.
+     *
+     * @return the audience
+     */
+    int getAudience();
+
+    /**
+     * Gets the amount owed for the current line (in cents).
+     *
+     * @return amount in cents
+     */
+    long getAmountCents();
+
+    /**
+     * Gets the amount owed for the current line (in cents) as an int.
+     *
+     * @return amount in cents
+     * @throws ArithmeticException if the amount does not fit in an int
+     */
+    default int getAmount() {
+        return Math.toIntExact(getAmountCents());
+    }
+
+    /**
+     * Gets the volume credits earned by the current line.
+     *
+     * @return volume credits
+     */
+    int getVolumeCredits();
+}
@@ -2,52 +2,60 @@ package theater.data;
 
 /**
  * Stores computed data for a single performance line.
+ * Instances are immutable, so a line can be shared between threads without copying.
  */
-public class PerformanceData {
-
-    private String playName;
-    private String playType;
-    private int audience;
-    private int amount;
-    private int volumeCredits;
+public final class PerformanceData {
+
+    private final String playName;
+    private final String playType;
+    private final int audience;
+    private final long amount;
+    private final int volumeCredits;
+
+    /**
+     * Creates a computed line.
+     *
+     * @param playName the name of the play
+     * @param playType the type of the play
+     * @param audience the audience of the performance
+     * @param amount the amount owed for the line (in cents)
+     * @param volumeCredits the volume credits earned by the line
+     */
+    public PerformanceData(String playName, String playType, int audience, long amount, int volumeCredits) {
+        this.playName = playName;
+        this.playType = playType;
+        this.audience = audience;
+        this.amount = amount;
+        this.volumeCredits = volumeCredits;
+    }
 
     public String getPlayName() {
         return playName;
     }
 
-    public void setPlayName(String playName) {
-        this.playName = playName;
-    }
-
     public String getPlayType() {
         return playType;
     }
 
-    public void setPlayType(String playType) {
-        this.playType = playType;
-    }
-
     public int getAudience() {
         return audience;
     }
 
-    public void setAudience(int audience) {
-        this.audience = audience;
-    }
-
+    /**
+     * Gets the amount owed for this line (in cents).
+     *
+     * @return amount in cents
+     * @throws ArithmeticException if the amount does not fit in an int; use {@link #getAmountCents()}
+     */
     public int getAmount() {
-        return amount;
+        return Math.toIntExact(amount);
     }
 
-    public void setAmount(int amount) {
-        this.amount = amount;
+    public long getAmountCents() {
+        return amount;
     }
 
     public int getVolumeCredits() {
         return volumeCredits;
     }
-
-    public void setVolumeCredits(int volumeCredits) {
-        this.volumeCredits = volumeCredits;
-    }
 }
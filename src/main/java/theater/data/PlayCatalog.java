@@ -0,0 +1,153 @@
+package theater.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.calculator.PlayTypeRegistry;
+import theater.calculator.PricingStrategy;
+
+/**
+ * Plays compiled into dense integer indices, with the pricing of every play resolved up front.
+ * {@link #resolve(Invoice)} turns the play ids of an invoice into indices once, so pricing
+ * a {@link ResolvedInvoice} needs no map lookup per line.
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class PlayCatalog {
+
+    private final String[] playIDs;
+    private final Play[] plays;
+    private final PricingStrategy[] pricing;
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Compiles the plays with the default registry.
+     *
+     * @param plays map of playID to Play objects
+     * @throws RuntimeException if a play has an unknown type
+     */
+    public PlayCatalog(Map<String, Play> plays) {
+        this(plays, PlayTypeRegistry.getDefault());
+    }
+
+    /**
+     * Compiles the plays, resolving their types through the given registry.
+     * Plays are indexed in the order of their ids.
+     *
+     * @param plays map of playID to Play objects
+     * @param registry the registry that prices each play type
+     * @throws RuntimeException if a play has an unknown type
+     */
+    public PlayCatalog(Map<String, Play> plays, PlayTypeRegistry registry) {
+        final Map<String, Play> sorted = new TreeMap<>(plays);
+        this.playIDs = new String[sorted.size()];
+        this.plays = new Play[sorted.size()];
+        this.pricing = new PricingStrategy[sorted.size()];
+        this.indexes = new HashMap<>();
+        int index = 0;
+        for (final Map.Entry<String, Play> entry : sorted.entrySet()) {
+            playIDs[index] = entry.getKey();
+            this.plays[index] = entry.getValue();
+            pricing[index] = registry.pricingFor(entry.getValue().getType());
+            indexes.put(entry.getKey(), index);
+            index++;
+        }
+    }
+
+    /**
+     * Gets the number of plays.
+     *
+     * @return the number of plays
+     */
+    public int size() {
+        return plays.length;
+    }
+
+    /**
+     * Gets the index of a play.
+     *
+     * @param playID the id of the play
+     * @return the index, or -1 if there is no such play
+     */
+    public int indexOf(String playID) {
+        final Integer index = indexes.get(playID);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the id of a play.
+     *
+     * @param index the index of the play
+     * @return the play id
+     */
+    public String getPlayID(int index) {
+        return playIDs[index];
+    }
+
+    /**
+     * Gets a play.
+     *
+     * @param index the index of the play
+     * @return the play
+     */
+    public Play getPlay(int index) {
+        return plays[index];
+    }
+
+    /**
+     * Gets the pricing of a play.
+     *
+     * @param index the index of the play
+     * @return the pricing for the play's type
+     */
+    public PricingStrategy getPricing(int index) {
+        return pricing[index];
+    }
+
+    /**
+     * Replaces the play ids of an invoice with indices.
+     *
+     * @param invoice the invoice to resolve
+     * @return the resolved invoice
+     * @throws UnknownPlayException listing every play id of the invoice that is not in this catalog
+     */
+    public ResolvedInvoice resolve(Invoice invoice) {
+        final List<Performance> performances = invoice.getPerformances();
+        final int[] playIndexes = new int[performances.size()];
+        final int[] audiences = new int[performances.size()];
+        Set<String> unknown = null;
+        for (int i = 0; i < playIndexes.length; i++) {
+            final Performance performance = performances.get(i);
+            playIndexes[i] = indexOf(performance.getPlayID());
+            audiences[i] = performance.getAudience();
+            if (playIndexes[i] < 0) {
+                if (unknown == null) {
+                    unknown = new LinkedHashSet<>();
+                }
+                unknown.add(performance.getPlayID());
+            }
+        }
+        if (unknown != null) {
+            throw new UnknownPlayException(invoice.getCustomer(), new ArrayList<>(unknown));
+        }
+        return new ResolvedInvoice(this, invoice.getCustomer(), playIndexes, audiences);
+    }
+
+    Play[] plays() {
+        return plays;
+    }
+
+    PricingStrategy[] pricing() {
+        return pricing;
+    }
+}
@@ -0,0 +1,75 @@
+package theater.data;
+
+/**
+ * Invoice whose performances refer to plays by their index in a {@link PlayCatalog}.
+ * Created by {@link PlayCatalog#resolve(theater.Invoice)}; instances are immutable.
+ */
+public final class ResolvedInvoice {
+
+    private final PlayCatalog catalog;
+    private final String customer;
+    private final int[] playIndexes;
+    private final int[] audiences;
+
+    ResolvedInvoice(PlayCatalog catalog, String customer, int[] playIndexes, int[] audiences) {
+        this.catalog = catalog;
+        this.customer = customer;
+        this.playIndexes = playIndexes;
+        this.audiences = audiences;
+    }
+
+    /**
+     * Gets the catalog the play indices refer to.
+     *
+     * @return the catalog
+     */
+    public PlayCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the customer of the invoice.
+     *
+     * @return the customer name
+     */
+    public String getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Gets the number of performances.
+     *
+     * @return the number of performances
+     */
+    public int size() {
+        return audiences.length;
+    }
+
+    /**
+     * Gets the catalog index of the play of a performance.
+     *
+     * @param performance the performance index
+     * @return the play index
+     */
+    public int getPlayIndex(int performance) {
+        return playIndexes[performance];
+    }
+
+    /**
+     * Gets the audience of a performance.
+     *
+     * @param performance the performance index
+     * @return the audience
+     */
+    public int getAudience(int performance) {
+        return audiences[performance];
+    }
+
+    int[] playIndexes() {
+        return playIndexes;
+    }
+
+    int[] audiences() {
+        return audiences;
+    }
+}
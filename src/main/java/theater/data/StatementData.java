@@ -1,26 +1,47 @@
 package theater.data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RecursiveTask;
 
 import theater.Invoice;
 import theater.Performance;
 import theater.Play;
-import theater.calculator.AbstractPerformanceCalculator;
-import theater.calculator.ComedyCalculator;
-import theater.calculator.HistoryCalculator;
-import theater.calculator.PastoralCalculator;
-import theater.calculator.TragedyCalculator;
+import theater.calculator.PlayTypeRegistry;
+import theater.calculator.PricingStrategy;
+import theater.metrics.Metrics;
+import theater.metrics.MetricsSink;
 
 /**
  * Stores computed data for a statement before formatting.
+ * A lazy instance only prices lines when its totals or lines are first asked for.
+ * Invoices with many performances are priced in chunks on a fork/join pool, so one
+ * very large invoice does not hold up a single thread; the lines keep invoice order.
+ * Instances are mutable and not thread-safe; call {@link #snapshot()} to get an
+ * immutable copy that any number of threads can render.
  */
-public class StatementData {
+public class StatementData implements StatementView {
+
+    /**
+     * Number of performances from which pricing is split into chunks priced in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int CHUNK_SIZE = 1 << 12;
 
     private String customer;
-    private final List<PerformanceData> performances = new ArrayList<>();
-    private int totalAmount;
+    private final List<Performance> source;
+    private final Map<String, Play> plays;
+    private final PlayTypeRegistry registry;
+    private List<PerformanceData> performances;
+    private boolean totalsComputed;
+    private boolean pricingRecorded;
+    private long totalAmount;
     private int totalVolumeCredits;
 
     /**
@@ -31,42 +52,234 @@ public class StatementData {
      * @param plays map of playID to Play objects
      */
     public StatementData(Invoice invoice, Map<String, Play> plays) {
+        this(invoice, plays, PlayTypeRegistry.getDefault());
+    }
+
+    /**
+     * Construct a StatementData and compute all results, resolving play types
+     * through the given registry instead of the default one.
+     *
+     * @param invoice the invoice to compute
+     * @param plays map of playID to Play objects
+     * @param registry the registry that prices each play type
+     */
+    public StatementData(Invoice invoice, Map<String, Play> plays, PlayTypeRegistry registry) {
+        this(invoice, plays, registry, false);
+    }
+
+    private StatementData(Invoice invoice, Map<String, Play> plays, PlayTypeRegistry registry, boolean lazy) {
         this.customer = invoice.getCustomer();
+        this.source = invoice.getPerformances();
+        this.plays = plays;
+        this.registry = registry;
+        if (lazy) {
+            validate();
+        }
+        else {
+            computePerformances();
+        }
+    }
 
-        for (Performance performance : invoice.getPerformances()) {
-            final Play play = plays.get(performance.getPlayID());
-            final AbstractPerformanceCalculator calculator =
-                    createCalculator(performance, play);
+    /**
+     * Creates a StatementData that defers all computation.
+     * Asking only for the totals prices the lines in a single pass without creating
+     * any PerformanceData; the lines are created on the first call to {@link #getPerformances()}.
+     * Every play and play type is still looked up at once, so an invoice that cannot be
+     * priced fails here and not when the statement is printed.
+     *
+     * @param invoice the invoice to compute
+     * @param plays map of playID to Play objects
+     * @return the lazy statement data
+     * @throws UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
+     */
+    public static StatementData lazy(Invoice invoice, Map<String, Play> plays) {
+        return lazy(invoice, plays, PlayTypeRegistry.getDefault());
+    }
 
-            final PerformanceData pd = new PerformanceData();
-            pd.setPlayName(play.getName());
-            pd.setPlayType(play.getType());
-            pd.setAudience(performance.getAudience());
-            pd.setAmount(calculator.amount());
-            pd.setVolumeCredits(calculator.volumeCredits());
+    /**
+     * Creates a StatementData that defers all computation and resolves play types
+     * through the given registry.
+     *
+     * @param invoice the invoice to compute
+     * @param plays map of playID to Play objects
+     * @param registry the registry that prices each play type
+     * @return the lazy statement data
+     * @throws UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
+     */
+    public static StatementData lazy(Invoice invoice, Map<String, Play> plays, PlayTypeRegistry registry) {
+        return new StatementData(invoice, plays, registry, true);
+    }
 
-            performances.add(pd);
+    /**
+     * Looks up the play and the pricing of every performance without pricing it.
+     *
+     * @throws UnknownPlayException if a play is not in the plays map
+     * @throws RuntimeException if a play type is unknown
+     */
+    private void validate() {
+        for (Performance performance : source) {
+            registry.pricingFor(play(performance).getType());
+        }
+    }
 
-            totalAmount += pd.getAmount();
-            totalVolumeCredits += pd.getVolumeCredits();
+    /**
+     * Prices every line and keeps the resulting PerformanceData.
+     */
+    private void computePerformances() {
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final List<PerformanceData> result;
+        long amount = 0;
+        int credits = 0;
+
+        if (source.size() >= PARALLEL_THRESHOLD) {
+            final PerformanceData[] lines = new PerformanceData[source.size()];
+            final Totals totals = new PricingTask(lines, 0, lines.length).invoke();
+            result = new ArrayList<>(Arrays.asList(lines));
+            amount = totals.amount;
+            credits = totals.credits;
+        }
+        else {
+            result = new ArrayList<>(source.size());
+            for (Performance performance : source) {
+                final PerformanceData pd = createLine(performance);
+                result.add(pd);
+
+                amount = Math.addExact(amount, pd.getAmountCents());
+                credits = Math.addExact(credits, pd.getVolumeCredits());
+            }
+        }
+
+        performances = result;
+        if (!totalsComputed) {
+            setTotals(amount, credits);
+        }
+        if (metrics.isEnabled()) {
+            recordPricing(metrics, start);
+        }
+    }
+
+    /**
+     * Prices a single performance.
+     *
+     * @param performance the performance to price
+     * @return the computed line
+     */
+    private PerformanceData createLine(Performance performance) {
+        final Play play = play(performance);
+        final PricingStrategy pricing = registry.pricingFor(play.getType());
+        final int audience = performance.getAudience();
+
+        return new PerformanceData(play.getName(), play.getType(), audience,
+                pricing.amount(audience), pricing.volumeCredits(audience));
+    }
+
+    /**
+     * Looks up the play of a performance.
+     *
+     * @param performance the performance
+     * @return the corresponding Play
+     * @throws UnknownPlayException if the play is not in the plays map
+     */
+    private Play play(Performance performance) {
+        final Play play = plays.get(performance.getPlayID());
+        if (play == null) {
+            throw new UnknownPlayException(customer, List.of(performance.getPlayID()));
+        }
+        return play;
+    }
+
+    /**
+     * Prices every line for the totals only.
+     */
+    private void computeTotals() {
+        final MetricsSink metrics = Metrics.sink();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final Totals totals;
+        if (source.size() >= PARALLEL_THRESHOLD) {
+            totals = new PricingTask(null, 0, source.size()).invoke();
+        }
+        else {
+            totals = priceTotals(0, source.size());
+        }
+
+        setTotals(totals.amount, totals.credits);
+        if (metrics.isEnabled()) {
+            recordPricing(metrics, start);
         }
     }
 
     /**
-     * Selects the correct calculator implementation for the given play type.
+     * Prices a range of performances for the totals only.
      *
-     * @param performance the performance being evaluated
-     * @param play the play corresponding to this performance
-     * @return the appropriate calculator implementation
-     * @throws RuntimeException if the play type is unknown
+     * @param start the index of the first performance
+     * @param end the index after the last performance
+     * @return the totals of the range
      */
-    private AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
-        switch (play.getType()) {
-            case "tragedy": return new TragedyCalculator(performance, play);
-            case "comedy": return new ComedyCalculator(performance, play);
-            case "history": return new HistoryCalculator(performance, play);
-            case "pastoral": return new PastoralCalculator(performance, play);
-            default: throw new RuntimeException("unknown type: " + play.getType());
+    private Totals priceTotals(int start, int end) {
+        long amount = 0;
+        int credits = 0;
+        for (int i = start; i < end; i++) {
+            final Performance performance = source.get(i);
+            final PricingStrategy pricing = registry.pricingFor(play(performance).getType());
+            amount = Math.addExact(amount, pricing.amount(performance.getAudience()));
+            credits = Math.addExact(credits, pricing.volumeCredits(performance.getAudience()));
+        }
+        return new Totals(amount, credits);
+    }
+
+    /**
+     * Prices a range of performances into the matching slots of an array of lines.
+     *
+     * @param lines the lines of the whole invoice
+     * @param start the index of the first performance
+     * @param end the index after the last performance
+     * @return the totals of the range
+     */
+    private Totals priceLines(PerformanceData[] lines, int start, int end) {
+        long amount = 0;
+        int credits = 0;
+        for (int i = start; i < end; i++) {
+            final PerformanceData pd = createLine(source.get(i));
+            lines[i] = pd;
+            amount = Math.addExact(amount, pd.getAmountCents());
+            credits = Math.addExact(credits, pd.getVolumeCredits());
+        }
+        return new Totals(amount, credits);
+    }
+
+    /**
+     * Reports the time spent pricing and the lines priced per play type. Lazy data that prices
+     * the totals first and the lines later reports only the first pass, so every statement
+     * counts once.
+     *
+     * @param metrics the enabled sink
+     * @param start the value of {@link System#nanoTime()} when pricing started
+     */
+    private void recordPricing(MetricsSink metrics, long start) {
+        if (pricingRecorded) {
+            return;
+        }
+        pricingRecorded = true;
+        metrics.statementPriced(System.nanoTime() - start);
+        final Map<String, Integer> lines = new HashMap<>();
+        for (Performance performance : source) {
+            lines.merge(play(performance).getType(), 1, Integer::sum);
+        }
+        lines.forEach(metrics::linesPriced);
+    }
+
+    private void setTotals(long amount, int credits) {
+        totalAmount = amount;
+        totalVolumeCredits = credits;
+        totalsComputed = true;
+    }
+
+    private void ensureTotals() {
+        if (!totalsComputed) {
+            computeTotals();
         }
     }
 
@@ -75,6 +288,7 @@ public class StatementData {
      *
      * @return the customer name
      */
+    @Override
     public String getCustomer() {
         return customer;
     }
@@ -91,18 +305,69 @@ public class StatementData {
     /**
      * Gets the list of performance data lines in this statement.
      *
-     * @return the performances list
+     * @return unmodifiable view of the performances list
      */
     public List<PerformanceData> getPerformances() {
+        return Collections.unmodifiableList(lines());
+    }
+
+    private List<PerformanceData> lines() {
+        if (performances == null) {
+            computePerformances();
+        }
         return performances;
     }
 
+    /**
+     * Copies the current lines and totals into an immutable statement.
+     * Later edits of this StatementData do not affect the snapshot.
+     *
+     * @return the immutable statement
+     */
+    public StatementSnapshot snapshot() {
+        return new StatementSnapshot(customer, lines(), getTotalAmountCents(), getTotalVolumeCredits());
+    }
+
+    /**
+     * Prices a performance added to the invoice and appends it as the last line.
+     * The totals are updated by the new line alone instead of being recomputed.
+     *
+     * @param performance the performance to add
+     * @return the new line
+     * @throws ArithmeticException if a total would overflow
+     */
+    public PerformanceData addPerformance(Performance performance) {
+        final PerformanceData pd = createLine(performance);
+        lines().add(pd);
+        ensureTotals();
+        totalAmount = Math.addExact(totalAmount, pd.getAmountCents());
+        totalVolumeCredits = Math.addExact(totalVolumeCredits, pd.getVolumeCredits());
+        return pd;
+    }
+
+    /**
+     * Removes a line and takes it out of the totals without recomputing them.
+     *
+     * @param index the index of the line to remove
+     * @return the removed line
+     * @throws IndexOutOfBoundsException if there is no line at that index
+     */
+    public PerformanceData removePerformance(int index) {
+        final PerformanceData pd = lines().remove(index);
+        ensureTotals();
+        totalAmount = Math.subtractExact(totalAmount, pd.getAmountCents());
+        totalVolumeCredits = Math.subtractExact(totalVolumeCredits, pd.getVolumeCredits());
+        return pd;
+    }
+
     /**
      * Gets the total amount owed (in cents).
      *
      * @return total amount in cents
      */
-    public int getTotalAmount() {
+    @Override
+    public long getTotalAmountCents() {
+        ensureTotals();
         return totalAmount;
     }
 
@@ -110,9 +375,11 @@ public class StatementData {
      * Adds an amount (in cents) to the total amount owed.
      *
      * @param amount the amount to add in cents
+     * @throws ArithmeticException if the total would overflow
      */
-    public void addToTotalAmount(int amount) {
-        totalAmount += amount;
+    public void addToTotalAmount(long amount) {
+        ensureTotals();
+        totalAmount = Math.addExact(totalAmount, amount);
     }
 
     /**
@@ -120,7 +387,9 @@ public class StatementData {
      *
      * @return total volume credits
      */
+    @Override
     public int getTotalVolumeCredits() {
+        ensureTotals();
         return totalVolumeCredits;
     }
 
@@ -128,8 +397,122 @@ public class StatementData {
      * Adds credits to the total volume credits earned.
      *
      * @param credits the credits to add
+     * @throws ArithmeticException if the total would overflow
      */
     public void addToTotalVolumeCredits(int credits) {
-        totalVolumeCredits += credits;
+        ensureTotals();
+        totalVolumeCredits = Math.addExact(totalVolumeCredits, credits);
+    }
+
+    @Override
+    public LineCursor cursor() {
+        return new Cursor(lines().iterator());
+    }
+
+    /**
+     * Partial totals of a range of performances.
+     */
+    private static final class Totals {
+
+        private final long amount;
+        private final int credits;
+
+        private Totals(long amount, int credits) {
+            this.amount = amount;
+            this.credits = credits;
+        }
+
+        private Totals add(Totals other) {
+            return new Totals(Math.addExact(amount, other.amount), Math.addExact(credits, other.credits));
+        }
+    }
+
+    /**
+     * Prices a range of performances by splitting it in halves down to {@code CHUNK_SIZE}.
+     * Started outside a fork/join pool, the halves that are forked run on the common pool
+     * while the calling thread prices the rest.
+     */
+    private final class PricingTask extends RecursiveTask<Totals> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PerformanceData[] lines;
+        private final int start;
+        private final int end;
+
+        /**
+         * Creates the task for a range.
+         *
+         * @param lines where to store the priced lines, or null to compute the totals only
+         * @param start the index of the first performance
+         * @param end the index after the last performance
+         */
+        private PricingTask(PerformanceData[] lines, int start, int end) {
+            this.lines = lines;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (end - start <= CHUNK_SIZE) {
+                if (lines == null) {
+                    return priceTotals(start, end);
+                }
+                return priceLines(lines, start, end);
+            }
+            final int middle = (start + end) >>> 1;
+            final PricingTask first = new PricingTask(lines, start, middle);
+            first.fork();
+            final Totals second = new PricingTask(lines, middle, end).compute();
+            return first.join().add(second);
+        }
+    }
+
+    /**
+     * Cursor over the materialized PerformanceData lines.
+     */
+    private static final class Cursor implements LineCursor {
+
+        private final Iterator<PerformanceData> lines;
+        private PerformanceData line;
+
+        private Cursor(Iterator<PerformanceData> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean next() {
+            if (!lines.hasNext()) {
+                return false;
+            }
+            line = lines.next();
+            return true;
+        }
+
+        @Override
+        public String getPlayName() {
+            return line.getPlayName();
+        }
+
+        @Override
+        public String getPlayType() {
+            return line.getPlayType();
+        }
+
+        @Override
+        public int getAudience() {
+            return line.getAudience();
+        }
+
+        @Override
+        public long getAmountCents() {
+            return line.getAmountCents();
+        }
+
+        @Override
+        public int getVolumeCredits() {
+            return line.getVolumeCredits();
+        }
     }
 }
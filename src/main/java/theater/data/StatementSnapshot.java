@@ -0,0 +1,129 @@
+package theater.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable computed statement. Every field is final and every line is an immutable
+ * {@link PerformanceData}, so once constructed a snapshot can be handed to any number
+ * of rendering threads without locking or copying.
+ */
+public final class StatementSnapshot implements StatementView {
+
+    private final String customer;
+    private final List<PerformanceData> performances;
+    private final long totalAmount;
+    private final int totalVolumeCredits;
+
+    /**
+     * Creates a snapshot from computed lines and totals.
+     *
+     * @param customer the customer name
+     * @param performances the computed lines, which are copied
+     * @param totalAmount total amount owed in cents
+     * @param totalVolumeCredits total volume credits earned
+     */
+    public StatementSnapshot(String customer, List<PerformanceData> performances,
+                             long totalAmount, int totalVolumeCredits) {
+        this.customer = customer;
+        this.performances = List.copyOf(performances);
+        this.totalAmount = totalAmount;
+        this.totalVolumeCredits = totalVolumeCredits;
+    }
+
+    /**
+     * Copies any statement into a snapshot.
+     *
+     * @param view the statement to copy
+     * @return the immutable statement
+     */
+    public static StatementSnapshot of(StatementView view) {
+        if (view instanceof StatementSnapshot) {
+            return (StatementSnapshot) view;
+        }
+        if (view instanceof StatementData) {
+            return ((StatementData) view).snapshot();
+        }
+        final List<PerformanceData> lines = new ArrayList<>();
+        final LineCursor line = view.cursor();
+        while (line.next()) {
+            lines.add(new PerformanceData(line.getPlayName(), line.getPlayType(), line.getAudience(),
+                    line.getAmountCents(), line.getVolumeCredits()));
+        }
+        return new StatementSnapshot(view.getCustomer(), lines,
+                view.getTotalAmountCents(), view.getTotalVolumeCredits());
+    }
+
+    @Override
+    public String getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Gets the lines of this statement.
+     *
+     * @return unmodifiable list of the computed lines
+     */
+    public List<PerformanceData> getPerformances() {
+        return performances;
+    }
+
+    @Override
+    public long getTotalAmountCents() {
+        return totalAmount;
+    }
+
+    @Override
+    public int getTotalVolumeCredits() {
+        return totalVolumeCredits;
+    }
+
+    @Override
+    public LineCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Cursor over the immutable lines.
+     */
+    private final class Cursor implements LineCursor {
+
+        private int index = -1;
+        private PerformanceData line;
+
+        @Override
+        public boolean next() {
+            index++;
+            if (index >= performances.size()) {
+                return false;
+            }
+            line = performances.get(index);
+            return true;
+        }
+
+        @Override
+        public String getPlayName() {
+            return line.getPlayName();
+        }
+
+        @Override
+        public String getPlayType() {
+            return line.getPlayType();
+        }
+
+        @Override
+        public int getAudience() {
+            return line.getAudience();
+        }
+
+        @Override
+        public long getAmountCents() {
+            return line.getAmountCents();
+        }
+
+        @Override
+        public int getVolumeCredits() {
+            return line.getVolumeCredits();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package theater.data;
+
+/**
+ * Read-only view of computed statement data, as needed to render a statement.
+ */
+public interface StatementView {
+
+    /**
+     * Gets the customer name for this statement.
+     *
+     * @return the customer name
+     */
+    String getCustomer();
+
+    /**
+     * Gets the total amount owed (in cents).
+     *
+     * @return total amount in cents
+     */
+    long getTotalAmountCents();
+
+    /**
+     * Gets the total amount owed (in cents) as an int.
+     *
+     * @return total amount in cents
+     * @throws ArithmeticException if the total does not fit in an int; use {@link #getTotalAmountCents()}
+     */
+    default int getTotalAmount() {
+        return Math.toIntExact(getTotalAmountCents());
+    }
+
+    /**
+     * Gets the total volume credits earned.
+     *
+     * @return total volume credits
+     */
+    int getTotalVolumeCredits();
+
+    /**
+     * Opens a cursor positioned before the first line.
+     *
+     * @return a new cursor over the lines, in invoice order
+     */
+    LineCursor cursor();
+}
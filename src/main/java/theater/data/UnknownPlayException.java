@@ -0,0 +1,45 @@
+package theater.data;
+
+import java.util.List;
+
+/**
+ * Thrown when an invoice refers to plays that are not in the plays map.
+ */
+public class UnknownPlayException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String customer;
+    private final List<String> playIDs;
+
+    /**
+     * Creates the exception.
+     *
+     * @param customer the customer of the invoice
+     * @param playIDs every unknown play id of the invoice, each listed once
+     */
+    public UnknownPlayException(String customer, List<String> playIDs) {
+        super("unknown play" + (playIDs.size() == 1 ? " " : "s ") + String.join(", ", playIDs)
+                + " in invoice for " + customer);
+        this.customer = customer;
+        this.playIDs = List.copyOf(playIDs);
+    }
+
+    /**
+     * Gets the customer of the invoice.
+     *
+     * @return the customer name
+     */
+    public String getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Gets the play ids that are not in the plays map.
+     *
+     * @return the unknown play ids
+     */
+    public List<String> getPlayIDs() {
+        return playIDs;
+    }
+}
@@ -0,0 +1,47 @@
+package theater.io;
+
+/**
+ * Layout of the binary invoice format shared by {@link BinaryInvoiceWriter} and {@link MappedInvoiceReader}.
+ *
+ * <pre>
+ * magic "THIV", version byte
+ * varint stringCount, then per string: varint byteLength, UTF-8 bytes
+ * varint invoiceCount, then per invoice:
+ *     varint customer string index, varint performanceCount,
+ *     then per performance: varint playID string index, zigzag varint audience
+ * </pre>
+ */
+final class BinaryInvoiceFormat {
+
+    static final byte[] MAGIC = {'T', 'H', 'I', 'V'};
+    static final int VERSION = 1;
+
+    static final int VARINT_PAYLOAD_BITS = 7;
+    static final int VARINT_PAYLOAD_MASK = 0x7F;
+    static final int VARINT_CONTINUATION = 0x80;
+    static final int MAX_VARINT_SHIFT = 28;
+
+    private BinaryInvoiceFormat() {
+
+    }
+
+    /**
+     * Maps signed ints to unsigned ones so that small negative numbers stay short.
+     *
+     * @param value the signed value
+     * @return the zigzag encoding
+     */
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> (Integer.SIZE - 1));
+    }
+
+    /**
+     * Reverses {@link #zigzag(int)}.
+     *
+     * @param value the zigzag encoding
+     * @return the signed value
+     */
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
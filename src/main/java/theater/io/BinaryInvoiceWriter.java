@@ -0,0 +1,94 @@
+package theater.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import theater.Invoice;
+import theater.Performance;
+
+/**
+ * Writes invoices in the compact binary format read by {@link MappedInvoiceReader}.
+ * Customers and play ids are stored once in a string table; every other number is a varint.
+ */
+public final class BinaryInvoiceWriter {
+
+    private BinaryInvoiceWriter() {
+
+    }
+
+    /**
+     * Writes invoices to a file, replacing it if it exists.
+     *
+     * @param invoices the invoices to write
+     * @param path the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Invoice> invoices, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(invoices, out);
+        }
+    }
+
+    /**
+     * Writes invoices to a stream.
+     *
+     * @param invoices the invoices to write
+     * @param out the destination stream; it is flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(List<Invoice> invoices, OutputStream out) throws IOException {
+        final Map<String, Integer> indexes = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        for (final Invoice invoice : invoices) {
+            intern(invoice.getCustomer(), indexes, strings);
+            for (final Performance performance : invoice.getPerformances()) {
+                intern(performance.getPlayID(), indexes, strings);
+            }
+        }
+
+        out.write(BinaryInvoiceFormat.MAGIC);
+        out.write(BinaryInvoiceFormat.VERSION);
+        writeVarint(strings.size(), out);
+        for (final String string : strings) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length, out);
+            out.write(bytes);
+        }
+
+        writeVarint(invoices.size(), out);
+        for (final Invoice invoice : invoices) {
+            writeVarint(indexes.get(invoice.getCustomer()), out);
+            writeVarint(invoice.getPerformances().size(), out);
+            for (final Performance performance : invoice.getPerformances()) {
+                writeVarint(indexes.get(performance.getPlayID()), out);
+                writeVarint(BinaryInvoiceFormat.zigzag(performance.getAudience()), out);
+            }
+        }
+        out.flush();
+    }
+
+    private static void intern(String string, Map<String, Integer> indexes, List<String> strings) {
+        if (!indexes.containsKey(string)) {
+            indexes.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static void writeVarint(int value, OutputStream out) throws IOException {
+        int remaining = value;
+        while ((remaining & ~BinaryInvoiceFormat.VARINT_PAYLOAD_MASK) != 0) {
+            out.write((remaining & BinaryInvoiceFormat.VARINT_PAYLOAD_MASK)
+                    | BinaryInvoiceFormat.VARINT_CONTINUATION);
+            remaining >>>= BinaryInvoiceFormat.VARINT_PAYLOAD_BITS;
+        }
+        out.write(remaining);
+    }
+}
@@ -0,0 +1,133 @@
+package theater.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import theater.Invoice;
+import theater.Performance;
+
+/**
+ * Streams invoices out of a JSON document in the invoices.json format.
+ * Each invoice is handed to the consumer as soon as it has been parsed and is not kept afterwards,
+ * so memory use depends on the largest invoice rather than on the size of the document.
+ */
+public final class InvoiceReader {
+
+    private InvoiceReader() {
+
+    }
+
+    /**
+     * Reads every invoice of a UTF-8 JSON file.
+     *
+     * @param path the invoices file
+     * @param consumer receives each invoice in document order
+     * @return statistics of the run
+     * @throws IOException if the file cannot be read or is not in the invoices format
+     */
+    public static ParseStats read(Path path, Consumer<? super Invoice> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), consumer);
+        }
+    }
+
+    /**
+     * Reads every invoice of a JSON document.
+     *
+     * @param source the JSON text; it is not closed
+     * @param consumer receives each invoice in document order
+     * @return statistics of the run
+     * @throws IOException if the source cannot be read or is not in the invoices format
+     */
+    public static ParseStats read(Reader source, Consumer<? super Invoice> consumer) throws IOException {
+        final long start = System.nanoTime();
+        final JsonReader json = new JsonReader(source);
+        long invoices = 0;
+        long performances = 0;
+
+        json.beginArray();
+        while (json.hasNext()) {
+            final Invoice invoice = readInvoice(json);
+            invoices++;
+            performances += invoice.getPerformances().size();
+            consumer.accept(invoice);
+        }
+        json.endArray();
+        json.endDocument();
+
+        return new ParseStats(invoices, performances, json.getCharactersRead(), System.nanoTime() - start);
+    }
+
+    private static Invoice readInvoice(JsonReader json) throws IOException {
+        String customer = null;
+        List<Performance> performances = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if ("customer".equals(name)) {
+                customer = json.nextString();
+            }
+            else if ("performances".equals(name)) {
+                performances = readPerformances(json);
+            }
+            else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (customer == null) {
+            throw new IOException("invoice without a customer before character " + json.getCharactersRead());
+        }
+        return new Invoice(customer, performances);
+    }
+
+    private static List<Performance> readPerformances(JsonReader json) throws IOException {
+        final List<Performance> performances = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            performances.add(readPerformance(json));
+        }
+        json.endArray();
+        return performances;
+    }
+
+    private static Performance readPerformance(JsonReader json) throws IOException {
+        String playID = null;
+        int audience = 0;
+        boolean hasAudience = false;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if ("playID".equals(name)) {
+                playID = json.nextString();
+            }
+            else if ("audience".equals(name)) {
+                audience = json.nextInt();
+                hasAudience = true;
+            }
+            else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (playID == null) {
+            throw new IOException("performance without a playID before character " + json.getCharactersRead());
+        }
+        if (!hasAudience) {
+            throw new IOException("performance without an audience before character " + json.getCharactersRead());
+        }
+        return new Performance(playID, audience);
+    }
+}
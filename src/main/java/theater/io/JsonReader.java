@@ -0,0 +1,422 @@
+package theater.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull parser for JSON text. The caller walks the document by calling
+ * the method matching the value it expects next, so nothing but the current
+ * token is ever held in memory. Reads through a fixed-size buffer.
+ */
+final class JsonReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_DEPTH = 64;
+    private static final int HEX_RADIX = 16;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private final boolean[] hasElement = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+    private boolean afterComma;
+
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * Creates a parser reading JSON text from the given reader.
+     *
+     * @param in the JSON source
+     */
+    JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException if the next value is not an array
+     */
+    void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push();
+    }
+
+    /**
+     * Consumes the end of the current array.
+     *
+     * @throws IOException if the array has more elements
+     */
+    void endArray() throws IOException {
+        expect(']');
+        depth--;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException if the next value is not an object
+     */
+    void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push();
+    }
+
+    /**
+     * Consumes the end of the current object.
+     *
+     * @throws IOException if the object has more members
+     */
+    void endObject() throws IOException {
+        expect('}');
+        depth--;
+    }
+
+    /**
+     * Checks whether the current array or object has another element.
+     * The comma before that element is consumed here, so that a comma before the closing
+     * bracket or brace is rejected.
+     *
+     * @return false if the next token closes the current array or object
+     * @throws IOException if the source cannot be read or has a trailing comma
+     */
+    boolean hasNext() throws IOException {
+        int c = peek();
+        if (c == ',' && depth > 0 && hasElement[depth - 1] && !afterComma) {
+            pos++;
+            afterComma = true;
+            c = peek();
+            if (c == ']' || c == '}') {
+                throw syntaxError("trailing comma");
+            }
+        }
+        return c != ']' && c != '}';
+    }
+
+    /**
+     * Consumes the name of the next object member.
+     *
+     * @return the member name
+     * @throws IOException if the next token is not a member name
+     */
+    String nextName() throws IOException {
+        beforeElement();
+        final String name = readString();
+        expect(':');
+        afterName = true;
+        return name;
+    }
+
+    /**
+     * Consumes a string value.
+     *
+     * @return the string
+     * @throws IOException if the next value is not a string
+     */
+    String nextString() throws IOException {
+        beforeValue();
+        return readString();
+    }
+
+    /**
+     * Consumes an integer value.
+     *
+     * @return the integer
+     * @throws IOException if the next value is not a number that fits in an int
+     */
+    int nextInt() throws IOException {
+        beforeValue();
+        final String literal = readLiteral();
+        if (isNumber(literal, true)) {
+            try {
+                return Integer.parseInt(literal);
+            }
+            catch (NumberFormatException exception) {
+                // out of range, reported below
+            }
+        }
+        throw syntaxError("expected an int but was '" + literal + "'");
+    }
+
+    /**
+     * Consumes the next value, whatever it is, including any nested values.
+     *
+     * @throws IOException if the next value is malformed
+     */
+    void skipValue() throws IOException {
+        beforeValue();
+        final int c = peek();
+        if (c == '{') {
+            expect('{');
+            push();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        }
+        else if (c == '[') {
+            expect('[');
+            push();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        }
+        else if (c == '"') {
+            readString();
+        }
+        else {
+            final String literal = readLiteral();
+            if (!"true".equals(literal) && !"false".equals(literal) && !"null".equals(literal)
+                    && !isNumber(literal, false)) {
+                throw syntaxError("unexpected value '" + literal + "'");
+            }
+        }
+    }
+
+    /**
+     * Checks that nothing but whitespace follows the document.
+     *
+     * @throws IOException if there is trailing content
+     */
+    void endDocument() throws IOException {
+        if (peek() != -1) {
+            throw syntaxError("unexpected content after the document");
+        }
+    }
+
+    /**
+     * Gets the number of characters consumed so far.
+     *
+     * @return the character count
+     */
+    long getCharactersRead() {
+        return consumed + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void push() throws IOException {
+        if (depth == MAX_DEPTH) {
+            throw syntaxError("nesting deeper than " + MAX_DEPTH);
+        }
+        hasElement[depth] = false;
+        depth++;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        }
+        else {
+            beforeElement();
+        }
+    }
+
+    private void beforeElement() throws IOException {
+        if (depth > 0) {
+            if (afterComma) {
+                afterComma = false;
+            }
+            else if (hasElement[depth - 1]) {
+                expect(',');
+            }
+            hasElement[depth - 1] = true;
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            final int c = read();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c == -1) {
+                throw syntaxError("unterminated string");
+            }
+            if (c == '\\') {
+                text.append(readEscape());
+            }
+            else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        final int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int result = 0;
+                for (int i = 0; i < UNICODE_ESCAPE_LENGTH; i++) {
+                    final int digit = Character.digit(read(), HEX_RADIX);
+                    if (digit < 0) {
+                        throw syntaxError("malformed unicode escape");
+                    }
+                    result = result * HEX_RADIX + digit;
+                }
+                return (char) result;
+            default:
+                throw syntaxError("invalid escape sequence");
+        }
+    }
+
+    private String readLiteral() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            final char c = buffer[pos];
+            if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || isDigit(c) || c == '-' || c == '+' || c == '.') {
+                text.append(c);
+                pos++;
+            }
+            else {
+                break;
+            }
+        }
+        if (text.length() == 0) {
+            throw syntaxError("expected a value");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Checks a literal against the JSON number grammar: an optional minus, an integer part without
+     * leading zeros, then unless only integers are allowed an optional fraction and exponent.
+     *
+     * @param literal the literal to check
+     * @param integer whether to allow only an integer part
+     * @return true if the literal is a number
+     */
+    private static boolean isNumber(String literal, boolean integer) {
+        final int length = literal.length();
+        int i = 0;
+        if (i < length && literal.charAt(i) == '-') {
+            i++;
+        }
+        if (i < length && literal.charAt(i) == '0') {
+            i++;
+        }
+        else {
+            final int start = i;
+            i = skipDigits(literal, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (integer) {
+            return i == length;
+        }
+        if (i < length && literal.charAt(i) == '.') {
+            final int start = ++i;
+            i = skipDigits(literal, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && (literal.charAt(i) == 'e' || literal.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (literal.charAt(i) == '+' || literal.charAt(i) == '-')) {
+                i++;
+            }
+            final int start = i;
+            i = skipDigits(literal, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static int skipDigits(String literal, int start) {
+        int i = start;
+        while (i < literal.length() && isDigit(literal.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private void expect(char expected) throws IOException {
+        skipWhitespace();
+        final int c = read();
+        if (c != expected) {
+            throw syntaxError("expected '" + expected + "'");
+        }
+    }
+
+    private int peek() throws IOException {
+        skipWhitespace();
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (pos < limit || fill()) {
+            final char c = buffer[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        final int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at character " + getCharactersRead());
+    }
+}
@@ -0,0 +1,260 @@
+package theater.io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.calculator.PlayTypeRegistry;
+import theater.data.ColumnarStatementData;
+
+/**
+ * Reads the binary format written by {@link BinaryInvoiceWriter} from a memory-mapped file.
+ * The reader is a cursor: {@link #nextInvoice()} moves to the next invoice and
+ * {@link #nextPerformance()} to its next performance, and the getters decode the current
+ * position straight from the mapped bytes. Only the string table is decoded up front.
+ * A reader is not thread-safe, but any number of readers may map the same file.
+ */
+public final class MappedInvoiceReader {
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int invoiceCount;
+    private int invoicesRead;
+    private String customer;
+    private int performanceCount;
+    private int performancesRead;
+    private String playID;
+    private int audience;
+
+    private MappedInvoiceReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            final byte[] magic = new byte[BinaryInvoiceFormat.MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, BinaryInvoiceFormat.MAGIC)
+                    || buffer.get() != BinaryInvoiceFormat.VERSION) {
+                throw new IOException("not a binary invoice file of version " + BinaryInvoiceFormat.VERSION);
+            }
+            this.strings = new String[readCount(1)];
+            for (int i = 0; i < strings.length; i++) {
+                final byte[] bytes = new byte[readCount(1)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            this.invoiceCount = readCount(2);
+        }
+        catch (BufferUnderflowException exception) {
+            throw new IOException("truncated binary invoice file", exception);
+        }
+    }
+
+    /**
+     * Maps a binary invoice file into memory.
+     *
+     * @param path the file written by {@link BinaryInvoiceWriter}
+     * @return a reader positioned before the first invoice
+     * @throws IOException if the file cannot be mapped or is not in the binary invoice format
+     */
+    public static MappedInvoiceReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("binary invoice files are limited to 2 GB: " + path);
+            }
+            return new MappedInvoiceReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the binary format from a buffer already in memory.
+     *
+     * @param buffer the encoded invoices, from its position to its limit
+     * @return a reader positioned before the first invoice
+     * @throws IOException if the buffer is not in the binary invoice format
+     */
+    public static MappedInvoiceReader of(ByteBuffer buffer) throws IOException {
+        return new MappedInvoiceReader(buffer.slice());
+    }
+
+    /**
+     * Gets the number of invoices in the file.
+     *
+     * @return the invoice count
+     */
+    public int getInvoiceCount() {
+        return invoiceCount;
+    }
+
+    /**
+     * Moves to the next invoice, skipping any performances of the current one that were not read.
+     *
+     * @return false if there are no more invoices
+     * @throws IOException if the file is truncated
+     */
+    public boolean nextInvoice() throws IOException {
+        while (performancesRead < performanceCount) {
+            nextPerformance();
+        }
+        if (invoicesRead == invoiceCount) {
+            return false;
+        }
+        try {
+            customer = readString();
+            performanceCount = readCount(2);
+        }
+        catch (BufferUnderflowException exception) {
+            throw new IOException("truncated binary invoice file", exception);
+        }
+        performancesRead = 0;
+        invoicesRead++;
+        return true;
+    }
+
+    /**
+     * Gets the customer of the current invoice.
+     *
+     * @return the customer name
+     */
+    public String getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Gets the number of performances of the current invoice.
+     *
+     * @return the performance count
+     */
+    public int getPerformanceCount() {
+        return performanceCount;
+    }
+
+    /**
+     * Moves to the next performance of the current invoice.
+     *
+     * @return false if the current invoice has no more performances
+     * @throws IOException if the file is truncated
+     */
+    public boolean nextPerformance() throws IOException {
+        if (performancesRead == performanceCount) {
+            return false;
+        }
+        try {
+            playID = readString();
+            audience = BinaryInvoiceFormat.unzigzag(readVarint());
+        }
+        catch (BufferUnderflowException exception) {
+            throw new IOException("truncated binary invoice file", exception);
+        }
+        performancesRead++;
+        return true;
+    }
+
+    /**
+     * Gets the play id of the current performance.
+     *
+     * @return the play id
+     */
+    public String getPlayID() {
+        return playID;
+    }
+
+    /**
+     * Gets the audience of the current performance.
+     *
+     * @return the audience
+     */
+    public int getAudience() {
+        return audience;
+    }
+
+    /**
+     * Reads the remaining performances of the current invoice into an {@link Invoice}.
+     *
+     * @return the current invoice
+     * @throws IOException if the file is truncated
+     */
+    public Invoice readInvoice() throws IOException {
+        final List<Performance> performances = new ArrayList<>(performanceCount - performancesRead);
+        while (nextPerformance()) {
+            performances.add(new Performance(playID, audience));
+        }
+        return new Invoice(customer, performances);
+    }
+
+    /**
+     * Prices the remaining performances of the current invoice straight from the file,
+     * without creating {@link Performance} or {@link Invoice} objects.
+     *
+     * @param plays map of playID to Play objects
+     * @param registry the registry that prices each play type
+     * @return the computed statement data of the current invoice
+     * @throws IOException if the file is truncated
+     */
+    public ColumnarStatementData readStatementData(Map<String, Play> plays, PlayTypeRegistry registry)
+            throws IOException {
+        final ColumnarStatementData.Builder builder = new ColumnarStatementData.Builder(
+                customer, plays, registry, performanceCount - performancesRead);
+        while (nextPerformance()) {
+            builder.add(playID, audience);
+        }
+        return builder.build();
+    }
+
+    private String readString() throws IOException {
+        final int index = readVarint();
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("string index " + index + " out of range at byte " + buffer.position());
+        }
+        return strings[index];
+    }
+
+    /**
+     * Reads a count or length, checking it against the bytes left so that a corrupt file
+     * cannot make the reader allocate more than the file could hold.
+     *
+     * @param bytesEach the fewest bytes each counted item takes in the file
+     * @return the count
+     * @throws IOException if the count is negative or larger than the rest of the file allows
+     */
+    private int readCount(int bytesEach) throws IOException {
+        final int count = readVarint();
+        if (count < 0 || count > buffer.remaining() / bytesEach) {
+            throw new IOException("count " + count + " exceeds the " + buffer.remaining()
+                    + " bytes left at byte " + buffer.position());
+        }
+        return count;
+    }
+
+    /**
+     * Reads a varint of at most five bytes whose value fits in an int.
+     *
+     * @return the value
+     * @throws IOException if the varint is longer than five bytes or does not fit in an int
+     */
+    private int readVarint() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift <= BinaryInvoiceFormat.MAX_VARINT_SHIFT;
+             shift += BinaryInvoiceFormat.VARINT_PAYLOAD_BITS) {
+            final int b = buffer.get();
+            if (shift == BinaryInvoiceFormat.MAX_VARINT_SHIFT
+                    && (b & BinaryInvoiceFormat.VARINT_PAYLOAD_MASK) >>> (Integer.SIZE - shift) != 0) {
+                break;
+            }
+            result |= (b & BinaryInvoiceFormat.VARINT_PAYLOAD_MASK) << shift;
+            if ((b & BinaryInvoiceFormat.VARINT_CONTINUATION) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("malformed varint at byte " + buffer.position());
+    }
+}
@@ -0,0 +1,73 @@
+package theater.io;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and timing of one run of {@link InvoiceReader}.
+ */
+public final class ParseStats {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double CHARACTERS_PER_MEGABYTE = 1024 * 1024;
+
+    private final long invoices;
+    private final long performances;
+    private final long characters;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the statistics of a finished run.
+     *
+     * @param invoices the number of invoices parsed
+     * @param performances the number of performances parsed
+     * @param characters the number of characters read
+     * @param elapsedNanos the wall-clock time of the run in nanoseconds
+     */
+    public ParseStats(long invoices, long performances, long characters, long elapsedNanos) {
+        this.invoices = invoices;
+        this.performances = performances;
+        this.characters = characters;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getInvoices() {
+        return invoices;
+    }
+
+    public long getPerformances() {
+        return performances;
+    }
+
+    public long getCharacters() {
+        return characters;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the parse throughput in invoices.
+     *
+     * @return invoices per second
+     */
+    public double getInvoicesPerSecond() {
+        return invoices * NANOS_PER_SECOND / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * Gets the parse throughput in input size.
+     *
+     * @return millions of characters (MiB of ASCII input) per second
+     */
+    public double getMegabytesPerSecond() {
+        return characters / CHARACTERS_PER_MEGABYTE * NANOS_PER_SECOND / Math.max(elapsedNanos, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d invoices, %d performances, %d characters in %d ms (%.0f invoices/s, %.1f MB/s)",
+                invoices, performances, characters, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                getInvoicesPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,81 @@
+package theater.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import theater.Play;
+
+/**
+ * Reads the plays of a JSON document in the plays.json format.
+ */
+public final class PlaysReader {
+
+    private PlaysReader() {
+
+    }
+
+    /**
+     * Reads the plays of a UTF-8 JSON file.
+     *
+     * @param path the plays file
+     * @return map of playID to Play
+     * @throws IOException if the file cannot be read or is not in the plays format
+     */
+    public static Map<String, Play> read(Path path) throws IOException {
+        try (Reader source = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(source);
+        }
+    }
+
+    /**
+     * Reads the plays of a JSON document.
+     *
+     * @param source the JSON text; it is not closed
+     * @return map of playID to Play
+     * @throws IOException if the source cannot be read or is not in the plays format
+     */
+    public static Map<String, Play> read(Reader source) throws IOException {
+        final JsonReader json = new JsonReader(source);
+        final Map<String, Play> plays = new HashMap<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String playID = json.nextName();
+            plays.put(playID, readPlay(json, playID));
+        }
+        json.endObject();
+        json.endDocument();
+
+        return plays;
+    }
+
+    private static Play readPlay(JsonReader json, String playID) throws IOException {
+        String name = null;
+        String type = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String member = json.nextName();
+            if ("name".equals(member)) {
+                name = json.nextString();
+            }
+            else if ("type".equals(member)) {
+                type = json.nextString();
+            }
+            else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (name == null || type == null) {
+            throw new IOException("play " + playID + " needs both a name and a type");
+        }
+        return new Play(name, type);
+    }
+}
@@ -0,0 +1,106 @@
+package theater.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values in power-of-two buckets.
+ * Percentiles are reported as the upper bound of the bucket they fall in,
+ * so they are accurate to within a factor of two.
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = Long.SIZE;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value; negative values are recorded as zero.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        final long recorded = Math.max(value, 0);
+        buckets.incrementAndGet(Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(recorded)));
+        count.increment();
+        sum.add(recorded);
+        max.accumulate(recorded);
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the values recorded.
+     *
+     * @return the sum
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest value recorded.
+     *
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        final long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        return (double) sum.sum() / n;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding that percentile, capped at the maximum
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets.get(i);
+        }
+        final long rank = (long) Math.ceil(total * percentile / PERCENT);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) {
+                final long upperBound;
+                if (i == 0) {
+                    upperBound = 1;
+                }
+                else if (i >= Long.SIZE - 2) {
+                    upperBound = Long.MAX_VALUE;
+                }
+                else {
+                    upperBound = (1L << (i + 1)) - 1;
+                }
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,71 @@
+package theater.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes a {@link RecordingMetricsSink} on the platform MBean server,
+ * where JConsole or any other JMX client can read it.
+ */
+public final class JmxMetricsExporter {
+
+    /**
+     * Name the metrics are registered under by {@link #register(RecordingMetricsSink)}.
+     */
+    public static final String DEFAULT_NAME = "theater:type=Metrics";
+
+    private JmxMetricsExporter() {
+
+    }
+
+    /**
+     * Registers a sink under {@link #DEFAULT_NAME}.
+     *
+     * @param sink the sink to publish
+     * @return the name it was registered under
+     * @throws IllegalStateException if the name is taken or the sink cannot be registered
+     */
+    public static ObjectName register(RecordingMetricsSink sink) {
+        return register(sink, DEFAULT_NAME);
+    }
+
+    /**
+     * Registers a sink under the given name.
+     *
+     * @param sink the sink to publish
+     * @param name the JMX object name
+     * @return the name it was registered under
+     * @throws IllegalStateException if the name is taken or the sink cannot be registered
+     */
+    public static ObjectName register(RecordingMetricsSink sink, String name) {
+        try {
+            final ObjectName objectName = new ObjectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(sink, objectName);
+            return objectName;
+        }
+        catch (JMException exception) {
+            throw new IllegalStateException("could not register metrics as " + name, exception);
+        }
+    }
+
+    /**
+     * Removes a sink registered by this exporter; does nothing if the name is not registered.
+     *
+     * @param name the name returned by register
+     * @throws IllegalStateException if the sink cannot be unregistered
+     */
+    public static void unregister(ObjectName name) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        }
+        catch (JMException exception) {
+            throw new IllegalStateException("could not unregister metrics " + name, exception);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package theater.metrics;
+
+/**
+ * Holds the sink the billing pipeline reports to.
+ */
+public final class Metrics {
+
+    private static volatile MetricsSink sink = MetricsSink.NO_OP;
+
+    private Metrics() {
+
+    }
+
+    /**
+     * Gets the installed sink.
+     *
+     * @return the sink, {@link MetricsSink#NO_OP} unless another one was installed
+     */
+    public static MetricsSink sink() {
+        return sink;
+    }
+
+    /**
+     * Installs the sink that receives all following events.
+     *
+     * @param metricsSink the sink to report to
+     */
+    public static void install(MetricsSink metricsSink) {
+        if (metricsSink == null) {
+            throw new IllegalArgumentException("metrics sink must not be null");
+        }
+        sink = metricsSink;
+    }
+
+    /**
+     * Goes back to recording nothing.
+     */
+    public static void reset() {
+        sink = MetricsSink.NO_OP;
+    }
+}
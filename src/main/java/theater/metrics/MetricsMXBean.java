@@ -0,0 +1,91 @@
+package theater.metrics;
+
+import java.util.Map;
+
+/**
+ * Management view of the metrics recorded by a {@link RecordingMetricsSink}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Gets the lines priced so far per play type.
+     *
+     * @return map of play type to line count
+     */
+    Map<String, Long> getLinesPriced();
+
+    /**
+     * Gets the number of statements whose lines were priced.
+     *
+     * @return the statement count
+     */
+    long getStatementsPriced();
+
+    /**
+     * Gets the mean time to price the lines of a statement.
+     *
+     * @return the mean in nanoseconds
+     */
+    double getPricingMeanNanos();
+
+    /**
+     * Gets the 99th percentile of the time to price the lines of a statement.
+     *
+     * @return the percentile in nanoseconds
+     */
+    long getPricingP99Nanos();
+
+    /**
+     * Gets the statements rendered so far per renderer.
+     *
+     * @return map of renderer to statement count
+     */
+    Map<String, Long> getStatementsRendered();
+
+    /**
+     * Gets the mean time to render a statement.
+     *
+     * @return the mean in nanoseconds
+     */
+    double getRenderingMeanNanos();
+
+    /**
+     * Gets the 99th percentile of the time to render a statement.
+     *
+     * @return the percentile in nanoseconds
+     */
+    long getRenderingP99Nanos();
+
+    /**
+     * Gets the number of currency amounts formatted.
+     *
+     * @return the amount count
+     */
+    long getCurrencyFormats();
+
+    /**
+     * Gets the mean time to format a currency amount.
+     *
+     * @return the mean in nanoseconds
+     */
+    double getFormatterMeanNanos();
+
+    /**
+     * Gets the mean size of a rendered statement.
+     *
+     * @return the mean size
+     */
+    double getStatementSizeMean();
+
+    /**
+     * Gets the largest rendered statement.
+     *
+     * @return the maximum size
+     */
+    long getStatementSizeMax();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
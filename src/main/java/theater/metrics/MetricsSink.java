@@ -0,0 +1,69 @@
+package theater.metrics;
+
+/**
+ * Receives timings and counts from the billing pipeline.
+ * Every method does nothing by default, so a sink overrides only the events it records.
+ * Callers check {@link #isEnabled()} once per statement and skip reading the clock when it is false,
+ * which keeps the cost of the default sink to a single field read.
+ * Implementations are called from many threads at once and must be thread-safe.
+ */
+public interface MetricsSink {
+
+    /**
+     * Sink that records nothing; it is installed until {@link Metrics#install(MetricsSink)} is called.
+     */
+    MetricsSink NO_OP = new MetricsSink() {
+    };
+
+    /**
+     * Tells callers whether to measure at all.
+     *
+     * @return true if this sink records events
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Records lines priced for one play type.
+     *
+     * @param playType the play type of the lines
+     * @param lines the number of lines priced
+     */
+    default void linesPriced(String playType, long lines) {
+    }
+
+    /**
+     * Records the time taken to price the lines of one statement.
+     *
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void statementPriced(long nanos) {
+    }
+
+    /**
+     * Records the time taken to render one statement, excluding pricing.
+     *
+     * @param renderer the simple class name of the printer or template
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void statementRendered(String renderer, long nanos) {
+    }
+
+    /**
+     * Records the size of one rendered statement.
+     *
+     * @param renderer the simple class name of the printer or template
+     * @param size the size in bytes, or in chars for statements rendered to text
+     */
+    default void statementSize(String renderer, long size) {
+    }
+
+    /**
+     * Records the time taken to format one currency amount.
+     *
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void currencyFormatted(long nanos) {
+    }
+}
@@ -0,0 +1,179 @@
+package theater.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sink that keeps counters and histograms in memory, for reading directly or through
+ * {@link JmxMetricsExporter}. Recording never blocks.
+ */
+public final class RecordingMetricsSink implements MetricsSink, MetricsMXBean {
+
+    private static final double P99 = 99.0;
+
+    private final ConcurrentMap<String, LongAdder> linesPriced = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> statementsRendered = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> statementSizesByRenderer = new ConcurrentHashMap<>();
+    private volatile Histogram pricingNanos = new Histogram();
+    private volatile Histogram renderingNanos = new Histogram();
+    private volatile Histogram formatterNanos = new Histogram();
+    private volatile Histogram statementSizes = new Histogram();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void linesPriced(String playType, long lines) {
+        linesPriced.computeIfAbsent(playType, type -> new LongAdder()).add(lines);
+    }
+
+    @Override
+    public void statementPriced(long nanos) {
+        pricingNanos.record(nanos);
+    }
+
+    @Override
+    public void statementRendered(String renderer, long nanos) {
+        statementsRendered.computeIfAbsent(renderer, name -> new LongAdder()).increment();
+        renderingNanos.record(nanos);
+    }
+
+    @Override
+    public void statementSize(String renderer, long size) {
+        statementSizes.record(size);
+        statementSizesByRenderer.computeIfAbsent(renderer, name -> new Histogram()).record(size);
+    }
+
+    @Override
+    public void currencyFormatted(long nanos) {
+        formatterNanos.record(nanos);
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        final Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLinesPriced() {
+        return sums(linesPriced);
+    }
+
+    @Override
+    public long getStatementsPriced() {
+        return pricingNanos.getCount();
+    }
+
+    @Override
+    public double getPricingMeanNanos() {
+        return pricingNanos.getMean();
+    }
+
+    @Override
+    public long getPricingP99Nanos() {
+        return pricingNanos.getPercentile(P99);
+    }
+
+    @Override
+    public Map<String, Long> getStatementsRendered() {
+        return sums(statementsRendered);
+    }
+
+    @Override
+    public double getRenderingMeanNanos() {
+        return renderingNanos.getMean();
+    }
+
+    @Override
+    public long getRenderingP99Nanos() {
+        return renderingNanos.getPercentile(P99);
+    }
+
+    @Override
+    public long getCurrencyFormats() {
+        return formatterNanos.getCount();
+    }
+
+    @Override
+    public double getFormatterMeanNanos() {
+        return formatterNanos.getMean();
+    }
+
+    @Override
+    public double getStatementSizeMean() {
+        return statementSizes.getMean();
+    }
+
+    @Override
+    public long getStatementSizeMax() {
+        return statementSizes.getMax();
+    }
+
+    /**
+     * Gets the histogram of pricing times.
+     *
+     * @return the histogram in nanoseconds
+     */
+    public Histogram getPricingHistogram() {
+        return pricingNanos;
+    }
+
+    /**
+     * Gets the histogram of rendering times.
+     *
+     * @return the histogram in nanoseconds
+     */
+    public Histogram getRenderingHistogram() {
+        return renderingNanos;
+    }
+
+    /**
+     * Gets the histogram of currency formatting times.
+     *
+     * @return the histogram in nanoseconds
+     */
+    public Histogram getFormatterHistogram() {
+        return formatterNanos;
+    }
+
+    /**
+     * Gets the histogram of statement sizes.
+     *
+     * @return the histogram of sizes
+     */
+    public Histogram getStatementSizeHistogram() {
+        return statementSizes;
+    }
+
+    /**
+     * Gets the histogram of the sizes of statements from one renderer. Text and HTML statements
+     * differ several times in size, so their sizes are best read apart.
+     *
+     * @param renderer the simple class name of the printer or template
+     * @return the histogram of sizes, empty if the renderer has not recorded any
+     */
+    public Histogram getStatementSizeHistogram(String renderer) {
+        final Histogram histogram = statementSizesByRenderer.get(renderer);
+        if (histogram == null) {
+            return new Histogram();
+        }
+        return histogram;
+    }
+
+    @Override
+    public void reset() {
+        linesPriced.clear();
+        statementsRendered.clear();
+        statementSizesByRenderer.clear();
+        pricingNanos = new Histogram();
+        renderingNanos = new Histogram();
+        formatterNanos = new Histogram();
+        statementSizes = new Histogram();
+    }
+}
@@ -0,0 +1,117 @@
+package theater.pipeline;
+
+import theater.Constants;
+
+/**
+ * Figures of one stage of a {@link StatementPipeline}, as they were when the snapshot was taken.
+ * Instances are immutable.
+ */
+public final class StageStats {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final String name;
+    private final int threads;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long processed;
+    private final long busyNanos;
+    private final long elapsedNanos;
+
+    StageStats(String name, int threads, int queueDepth, int queueCapacity, long processed, long busyNanos,
+               long elapsedNanos) {
+        this.name = name;
+        this.threads = threads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.processed = processed;
+        this.busyNanos = busyNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the name of the stage: price, render or write.
+     *
+     * @return the stage name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of worker threads of the stage.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the number of invoices waiting for the stage.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Gets the number of invoices that can wait for the stage before the stage
+     * in front of it blocks.
+     *
+     * @return the queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Gets the number of invoices the stage has finished with.
+     *
+     * @return the number of invoices processed
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Gets the time the workers of the stage spent working, summed over all of them.
+     *
+     * @return busy time in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Gets the invoices processed per second since the pipeline started.
+     *
+     * @return the throughput of the stage
+     */
+    public double getThroughput() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return processed * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Gets the share of its threads' time the stage spent working, from 0 to 1.
+     * A stage close to 1 is the bottleneck of the pipeline and would gain from more threads.
+     *
+     * @return the utilization of the stage
+     */
+    public double getUtilization() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return Math.min(1.0, (double) busyNanos / elapsedNanos / threads);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[threads=%d, queue=%d/%d, processed=%d, throughput=%.1f/s, utilization=%.0f%%]",
+                name, threads, queueDepth, queueCapacity, processed, getThroughput(), getUtilization() * Constants.PERCENT_FACTOR);
+    }
+}
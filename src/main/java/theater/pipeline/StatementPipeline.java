@@ -0,0 +1,395 @@
+package theater.pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import theater.Invoice;
+import theater.Play;
+import theater.StatementFormat;
+import theater.calculator.PlayTypeRegistry;
+import theater.data.StatementData;
+import theater.data.StatementView;
+
+/**
+ * Turns invoices into written statements in three stages, each with its own worker threads:
+ * price ({@link StatementData}), render (the renderer of a {@link StatementFormat}) and write
+ * (a {@link StatementSink}). The stages are joined by bounded queues, so a slow stage makes the
+ * stages in front of it wait instead of buffering without limit, and a slow sink no longer keeps
+ * pricing and rendering from running on the other cores. {@link #submit(Invoice)} blocks while
+ * the pricing queue is full.
+ *
+ * <p>Statements are written in no particular order. If any stage fails, the remaining invoices
+ * are drained without being processed and {@link #finish()} throws the first failure.
+ */
+public final class StatementPipeline {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+    private static final Job END = new Job(null);
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final long started = System.nanoTime();
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private boolean finished;
+
+    private StatementPipeline(Builder builder) {
+        final Map<String, Play> plays = builder.plays;
+        final PlayTypeRegistry registry = builder.registry;
+        final StatementFormat format = builder.format;
+        final StatementSink sink = builder.sink;
+
+        final Stage write = new Stage("write", builder.writingThreads, builder.queueCapacity, null,
+                job -> sink.write(job.invoice, job.statement));
+        final Stage render = new Stage("render", builder.renderingThreads, builder.queueCapacity, write,
+                job -> {
+                    job.statement = format.renderer().render(job.data);
+                    job.data = null;
+                });
+        final Stage price = new Stage("price", builder.pricingThreads, builder.queueCapacity, render,
+                job -> job.data = new StatementData(job.invoice, plays, registry));
+        stages.add(price);
+        stages.add(render);
+        stages.add(write);
+        for (final Stage stage : stages) {
+            stage.start();
+        }
+    }
+
+    /**
+     * Starts configuring a pipeline.
+     *
+     * @param plays the map of play information, shared by all pricing threads
+     * @param sink where the rendered statements go
+     * @return a new builder
+     */
+    public static Builder builder(Map<String, Play> plays, StatementSink sink) {
+        return new Builder(plays, sink);
+    }
+
+    /**
+     * Hands an invoice to the pipeline, waiting while the pricing queue is full.
+     *
+     * @param invoice the invoice to turn into a statement
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if {@link #finish()} was already called
+     */
+    public void submit(Invoice invoice) throws InterruptedException {
+        // submitters share the lock, so none can queue an invoice behind the end marker
+        final Lock lock = submitLock.readLock();
+        lock.lockInterruptibly();
+        try {
+            if (finished) {
+                throw new IllegalStateException("pipeline is finished");
+            }
+            stages.get(0).queue.put(new Job(invoice));
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Submits every invoice, then waits until all of them are written.
+     *
+     * @param invoices the invoices to turn into statements
+     * @throws IOException if the sink failed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws RuntimeException if pricing or rendering failed, such as for an unknown play
+     */
+    public void process(Iterable<Invoice> invoices) throws IOException, InterruptedException {
+        for (final Invoice invoice : invoices) {
+            submit(invoice);
+        }
+        finish();
+    }
+
+    /**
+     * Tells the pipeline that no more invoices come and waits until the submitted ones are written.
+     * The worker threads end once this returns.
+     *
+     * @throws IOException if the sink failed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws RuntimeException if pricing or rendering failed, such as for an unknown play
+     */
+    public void finish() throws IOException, InterruptedException {
+        final Lock lock = submitLock.writeLock();
+        lock.lockInterruptibly();
+        try {
+            if (!finished) {
+                finished = true;
+                stages.get(0).queue.put(END);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        done.await();
+        final Exception exception = failure.get();
+        if (exception instanceof IOException) {
+            throw (IOException) exception;
+        }
+        if (exception != null) {
+            throw (RuntimeException) exception;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the queue depth and throughput of every stage, in pipeline order.
+     * This can be called at any time from any thread.
+     *
+     * @return the figures of the price, render and write stages
+     */
+    public List<StageStats> getStats() {
+        final long elapsed = System.nanoTime() - started;
+        final List<StageStats> stats = new ArrayList<>(stages.size());
+        for (final Stage stage : stages) {
+            stats.add(stage.stats(elapsed));
+        }
+        return stats;
+    }
+
+    /**
+     * An invoice on its way through the stages.
+     */
+    private static final class Job {
+
+        private final Invoice invoice;
+        private StatementView data;
+        private String statement;
+
+        private Job(Invoice invoice) {
+            this.invoice = invoice;
+        }
+    }
+
+    /**
+     * The work one stage does on a job.
+     */
+    @FunctionalInterface
+    private interface Work {
+
+        void apply(Job job) throws IOException;
+    }
+
+    /**
+     * A queue with the threads that take jobs from it and pass them on to the next stage.
+     * The end marker is put back for the other threads of the stage, and the last thread
+     * to see it passes it on.
+     */
+    private final class Stage {
+
+        private final String name;
+        private final BlockingQueue<Job> queue;
+        private final Stage next;
+        private final Work work;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger running;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        private Stage(String name, int threadCount, int queueCapacity, Stage next, Work work) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.next = next;
+            this.work = work;
+            this.running = new AtomicInteger(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                final Thread thread = new Thread(this::run, "statement-pipeline-" + name + "-" + (i + 1));
+                thread.setDaemon(true);
+                threads.add(thread);
+            }
+        }
+
+        private void start() {
+            for (final Thread thread : threads) {
+                thread.start();
+            }
+        }
+
+        private void run() {
+            boolean interrupted = false;
+            try {
+                Job job = queue.take();
+                while (job != END) {
+                    process(job);
+                    job = queue.take();
+                }
+                queue.put(END);
+            }
+            catch (InterruptedException exception) {
+                failure.compareAndSet(null, new IllegalStateException(Thread.currentThread().getName()
+                        + " was interrupted", exception));
+                interrupted = true;
+            }
+            finally {
+                if (running.decrementAndGet() == 0) {
+                    passOnEnd();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(Job job) throws InterruptedException {
+            if (failure.get() == null) {
+                final long start = System.nanoTime();
+                try {
+                    work.apply(job);
+                }
+                catch (IOException | RuntimeException exception) {
+                    failure.compareAndSet(null, exception);
+                }
+                busyNanos.add(System.nanoTime() - start);
+                processed.increment();
+            }
+            if (next != null) {
+                next.queue.put(job);
+            }
+        }
+
+        private void passOnEnd() {
+            queue.remove(END);
+            if (next == null) {
+                done.countDown();
+                return;
+            }
+            boolean passed = false;
+            while (!passed) {
+                try {
+                    next.queue.put(END);
+                    passed = true;
+                }
+                catch (InterruptedException exception) {
+                    failure.compareAndSet(null, new IllegalStateException(Thread.currentThread().getName()
+                            + " was interrupted", exception));
+                }
+            }
+        }
+
+        private StageStats stats(long elapsedNanos) {
+            return new StageStats(name, threads.size(), queue.size(), queue.size() + queue.remainingCapacity(),
+                    processed.sum(), busyNanos.sum(), elapsedNanos);
+        }
+    }
+
+    /**
+     * Collects the settings of a pipeline. Unless told otherwise, pricing and rendering get
+     * one thread per processor, writing gets a single thread, and each stage has room
+     * for 256 waiting invoices.
+     */
+    public static final class Builder {
+
+        private final Map<String, Play> plays;
+        private final StatementSink sink;
+        private PlayTypeRegistry registry = PlayTypeRegistry.getDefault();
+        private StatementFormat format = StatementFormat.PLAIN_TEXT;
+        private int pricingThreads = Runtime.getRuntime().availableProcessors();
+        private int renderingThreads = Runtime.getRuntime().availableProcessors();
+        private int writingThreads = 1;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        private Builder(Map<String, Play> plays, StatementSink sink) {
+            this.plays = plays;
+            this.sink = sink;
+        }
+
+        /**
+         * Sets the registry that prices each play type.
+         *
+         * @param playTypes the registry
+         * @return this builder
+         */
+        public Builder registry(PlayTypeRegistry playTypes) {
+            this.registry = playTypes;
+            return this;
+        }
+
+        /**
+         * Sets the format the statements are rendered in.
+         *
+         * @param statementFormat the output format
+         * @return this builder
+         */
+        public Builder format(StatementFormat statementFormat) {
+            this.format = statementFormat;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads that price invoices.
+         *
+         * @param threads the number of threads
+         * @return this builder
+         * @throws IllegalArgumentException if threads is not positive
+         */
+        public Builder pricingThreads(int threads) {
+            this.pricingThreads = positive("pricing threads", threads);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads that render statements.
+         *
+         * @param threads the number of threads
+         * @return this builder
+         * @throws IllegalArgumentException if threads is not positive
+         */
+        public Builder renderingThreads(int threads) {
+            this.renderingThreads = positive("rendering threads", threads);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads that hand statements to the sink.
+         *
+         * @param threads the number of threads
+         * @return this builder
+         * @throws IllegalArgumentException if threads is not positive
+         */
+        public Builder writingThreads(int threads) {
+            this.writingThreads = positive("writing threads", threads);
+            return this;
+        }
+
+        /**
+         * Sets how many invoices can wait in front of each stage.
+         *
+         * @param capacity the capacity of each queue
+         * @return this builder
+         * @throws IllegalArgumentException if capacity is not positive
+         */
+        public Builder queueCapacity(int capacity) {
+            this.queueCapacity = positive("queue capacity", capacity);
+            return this;
+        }
+
+        private static int positive(String setting, int value) {
+            if (value < 1) {
+                throw new IllegalArgumentException(setting + " must be positive: " + value);
+            }
+            return value;
+        }
+
+        /**
+         * Starts the worker threads of every stage.
+         *
+         * @return the running pipeline
+         */
+        public StatementPipeline start() {
+            return new StatementPipeline(this);
+        }
+    }
+}
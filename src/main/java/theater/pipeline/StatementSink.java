@@ -0,0 +1,22 @@
+package theater.pipeline;
+
+import java.io.IOException;
+
+import theater.Invoice;
+
+/**
+ * Last stage of a {@link StatementPipeline}: stores or sends each rendered statement.
+ */
+@FunctionalInterface
+public interface StatementSink {
+
+    /**
+     * Writes the statement of an invoice.
+     * With more than one writing thread, this is called from several threads at once.
+     *
+     * @param invoice the invoice the statement was rendered for
+     * @param statement the rendered statement
+     * @throws IOException if the statement cannot be written
+     */
+    void write(Invoice invoice, String statement) throws IOException;
+}
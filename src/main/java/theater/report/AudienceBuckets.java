@@ -0,0 +1,122 @@
+package theater.report;
+
+import java.util.Arrays;
+
+import theater.Constants;
+
+/**
+ * Ranges of audience sizes that a report groups performances by.
+ * Each bucket ends at an inclusive upper bound, and a last bucket holds every larger audience.
+ * Instances are immutable.
+ */
+public final class AudienceBuckets {
+
+    private static final int LARGE_AUDIENCE = 50;
+    private static final int FULL_HOUSE = 100;
+    private static final AudienceBuckets STANDARD = of(Constants.COMEDY_AUDIENCE_THRESHOLD,
+            Constants.TRAGEDY_AUDIENCE_THRESHOLD, LARGE_AUDIENCE, FULL_HOUSE);
+
+    private final int[] upperBounds;
+    private final String[] labels;
+
+    private AudienceBuckets(int[] upperBounds) {
+        this.upperBounds = upperBounds;
+        this.labels = new String[upperBounds.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = label(i);
+        }
+    }
+
+    /**
+     * Gets the buckets split at the audience thresholds of the built-in play types:
+     * up to 20, 21-30, 31-50, 51-100 and over 100.
+     *
+     * @return the standard buckets
+     */
+    public static AudienceBuckets standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Creates buckets that end at the given audiences.
+     *
+     * @param upperBounds the largest audience of each bucket but the last, in increasing order
+     * @return the buckets
+     * @throws IllegalArgumentException if the bounds are empty or not strictly increasing
+     */
+    public static AudienceBuckets of(int... upperBounds) {
+        if (upperBounds.length == 0) {
+            throw new IllegalArgumentException("at least one bucket bound is needed");
+        }
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("bucket bounds must increase: " + Arrays.toString(upperBounds));
+            }
+        }
+        return new AudienceBuckets(upperBounds.clone());
+    }
+
+    private String label(int bucket) {
+        if (bucket == 0) {
+            return "up to " + upperBounds[0];
+        }
+        if (bucket == upperBounds.length) {
+            return "over " + upperBounds[bucket - 1];
+        }
+        final int low = upperBounds[bucket - 1] + 1;
+        final int high = upperBounds[bucket];
+        if (low == high) {
+            return String.valueOf(high);
+        }
+        return low + "-" + high;
+    }
+
+    /**
+     * Gets the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * Finds the bucket of an audience.
+     *
+     * @param audience the audience of a performance
+     * @return the index of its bucket
+     */
+    public int indexOf(int audience) {
+        final int found = Arrays.binarySearch(upperBounds, audience);
+        if (found >= 0) {
+            return found;
+        }
+        return -found - 1;
+    }
+
+    /**
+     * Gets the label of a bucket, such as {@code "21-30"}.
+     *
+     * @param bucket the index of the bucket
+     * @return its label
+     */
+    public String getLabel(int bucket) {
+        return labels[bucket];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other
+                || other instanceof AudienceBuckets && Arrays.equals(upperBounds, ((AudienceBuckets) other).upperBounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(upperBounds);
+    }
+
+    @Override
+    public String toString() {
+        return "AudienceBuckets" + Arrays.toString(labels);
+    }
+}
@@ -0,0 +1,154 @@
+package theater.report;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import theater.data.LineCursor;
+import theater.data.StatementView;
+
+/**
+ * Running totals of a report, built one statement at a time.
+ * Only the groups are kept, never the statements, so memory depends on the number of
+ * plays, play types and customers and not on the number of invoices.
+ * Instances are not thread-safe: give each thread its own accumulator and
+ * {@link #merge(ReportAccumulator) merge} them at the end.
+ */
+public final class ReportAccumulator {
+
+    private final AudienceBuckets buckets;
+    private final Map<String, Counter> byPlay = new HashMap<>();
+    private final Map<String, Counter> byPlayType = new HashMap<>();
+    private final Map<String, Counter> byCustomer = new HashMap<>();
+    private final Counter[] byAudience;
+    private final Counter total = new Counter();
+    private long statements;
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param buckets the audience buckets to group lines by
+     */
+    public ReportAccumulator(AudienceBuckets buckets) {
+        this.buckets = buckets;
+        this.byAudience = new Counter[buckets.size()];
+        for (int i = 0; i < byAudience.length; i++) {
+            byAudience[i] = new Counter();
+        }
+    }
+
+    /**
+     * Adds every line of a statement.
+     * The customer and overall totals take the statement totals, so they include any amount
+     * or credits added to the statement by hand; the other groups sum the lines.
+     *
+     * @param statement the statement to add
+     * @return this accumulator
+     * @throws ArithmeticException if a total overflows
+     */
+    public ReportAccumulator add(StatementView statement) {
+        final LineCursor line = statement.cursor();
+        long lines = 0;
+        while (line.next()) {
+            final long amount = line.getAmountCents();
+            final int credits = line.getVolumeCredits();
+            counter(byPlay, line.getPlayName()).add(1, amount, credits);
+            counter(byPlayType, line.getPlayType()).add(1, amount, credits);
+            byAudience[buckets.indexOf(line.getAudience())].add(1, amount, credits);
+            lines++;
+        }
+        final long amount = statement.getTotalAmountCents();
+        final int credits = statement.getTotalVolumeCredits();
+        counter(byCustomer, statement.getCustomer()).add(lines, amount, credits);
+        total.add(lines, amount, credits);
+        statements++;
+        return this;
+    }
+
+    /**
+     * Adds the totals of another accumulator to this one.
+     *
+     * @param other an accumulator with the same audience buckets; it must not be used afterwards
+     * @return this accumulator
+     * @throws IllegalArgumentException if the audience buckets differ
+     * @throws ArithmeticException if a total overflows
+     */
+    public ReportAccumulator merge(ReportAccumulator other) {
+        if (!buckets.equals(other.buckets)) {
+            throw new IllegalArgumentException("cannot merge reports with buckets " + buckets + " and "
+                    + other.buckets);
+        }
+        merge(byPlay, other.byPlay);
+        merge(byPlayType, other.byPlayType);
+        merge(byCustomer, other.byCustomer);
+        for (int i = 0; i < byAudience.length; i++) {
+            byAudience[i].add(other.byAudience[i]);
+        }
+        total.add(other.total);
+        statements += other.statements;
+        return this;
+    }
+
+    /**
+     * Copies the current totals into a report.
+     *
+     * @return the immutable report
+     */
+    public RevenueReport toReport() {
+        final Map<String, Rollup> audience = new LinkedHashMap<>();
+        for (int i = 0; i < byAudience.length; i++) {
+            audience.put(buckets.getLabel(i), byAudience[i].toRollup());
+        }
+        return new RevenueReport(statements, total.toRollup(), rollups(byPlay), rollups(byPlayType),
+                rollups(byCustomer), audience);
+    }
+
+    private static Counter counter(Map<String, Counter> groups, String key) {
+        Counter counter = groups.get(key);
+        if (counter == null) {
+            counter = new Counter();
+            groups.put(key, counter);
+        }
+        return counter;
+    }
+
+    private static void merge(Map<String, Counter> into, Map<String, Counter> from) {
+        for (final Map.Entry<String, Counter> group : from.entrySet()) {
+            final Counter counter = into.putIfAbsent(group.getKey(), group.getValue());
+            if (counter != null) {
+                counter.add(group.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Rollup> rollups(Map<String, Counter> groups) {
+        final Map<String, Rollup> rollups = new TreeMap<>();
+        groups.forEach((key, counter) -> rollups.put(key, counter.toRollup()));
+        return rollups;
+    }
+
+    /**
+     * Mutable totals of one group.
+     */
+    private static final class Counter {
+
+        private long lines;
+        private long amountCents;
+        private long volumeCredits;
+
+        private void add(long moreLines, long amount, long credits) {
+            lines += moreLines;
+            amountCents = Math.addExact(amountCents, amount);
+            volumeCredits = Math.addExact(volumeCredits, credits);
+        }
+
+        private void add(Counter other) {
+            add(other.lines, other.amountCents, other.volumeCredits);
+        }
+
+        private Rollup toRollup() {
+            return new Rollup(lines, amountCents, volumeCredits);
+        }
+    }
+}
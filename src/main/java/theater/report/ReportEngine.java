@@ -0,0 +1,67 @@
+package theater.report;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import theater.Invoice;
+import theater.data.PlayCatalog;
+import theater.data.StatementView;
+
+/**
+ * Builds revenue reports over streams of invoices or statements in parallel on a ForkJoinPool.
+ * Every worker fills its own {@link ReportAccumulator}, and the accumulators are merged pairwise
+ * as the workers finish, so no lock is taken while lines are added.
+ */
+public class ReportEngine {
+
+    private final PlayCatalog catalog;
+    private final AudienceBuckets buckets;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a report engine with the standard audience buckets that runs on the common ForkJoinPool.
+     *
+     * @param catalog the plays the invoices refer to
+     */
+    public ReportEngine(PlayCatalog catalog) {
+        this(catalog, AudienceBuckets.standard(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a report engine that runs on the given pool.
+     *
+     * @param catalog the plays the invoices refer to
+     * @param buckets the audience buckets to group lines by
+     * @param pool the pool that prices and adds up the statements
+     */
+    public ReportEngine(PlayCatalog catalog, AudienceBuckets buckets, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.buckets = buckets;
+        this.pool = pool;
+    }
+
+    /**
+     * Prices every invoice of the stream and rolls the statements up into a report.
+     *
+     * @param invoices the invoices to report on
+     * @return the report
+     * @throws theater.data.UnknownPlayException if an invoice refers to a play missing from the catalog
+     */
+    public RevenueReport report(Stream<Invoice> invoices) {
+        return pool.submit(() -> invoices.parallel()
+                .collect(RevenueReport.invoiceCollector(catalog, buckets)))
+                .join();
+    }
+
+    /**
+     * Rolls already computed statements up into a report.
+     *
+     * @param statements the statements to report on
+     * @return the report
+     */
+    public RevenueReport reportStatements(Stream<? extends StatementView> statements) {
+        return pool.submit(() -> statements.parallel()
+                .collect(RevenueReport.collector(buckets)))
+                .join();
+    }
+}
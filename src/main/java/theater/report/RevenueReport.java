@@ -0,0 +1,166 @@
+package theater.report;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+import theater.Invoice;
+import theater.data.ColumnarStatementData;
+import theater.data.PlayCatalog;
+import theater.data.StatementView;
+
+/**
+ * Revenue and volume credits of many statements, rolled up by play, play type, customer
+ * and audience bucket. Reports are built in a single pass by a {@link ReportAccumulator},
+ * usually through one of the collectors below, which also work on parallel streams.
+ * Instances are immutable.
+ */
+public final class RevenueReport {
+
+    private final long statements;
+    private final Rollup total;
+    private final Map<String, Rollup> byPlay;
+    private final Map<String, Rollup> byPlayType;
+    private final Map<String, Rollup> byCustomer;
+    private final Map<String, Rollup> byAudience;
+
+    RevenueReport(long statements, Rollup total, Map<String, Rollup> byPlay, Map<String, Rollup> byPlayType,
+                  Map<String, Rollup> byCustomer, Map<String, Rollup> byAudience) {
+        this.statements = statements;
+        this.total = total;
+        this.byPlay = Collections.unmodifiableMap(byPlay);
+        this.byPlayType = Collections.unmodifiableMap(byPlayType);
+        this.byCustomer = Collections.unmodifiableMap(byCustomer);
+        this.byAudience = Collections.unmodifiableMap(byAudience);
+    }
+
+    /**
+     * Collects statements into a report with the standard audience buckets.
+     *
+     * @param <T> the type of the statements
+     * @return the collector
+     */
+    public static <T extends StatementView> Collector<T, ?, RevenueReport> collector() {
+        return collector(AudienceBuckets.standard());
+    }
+
+    /**
+     * Collects statements into a report.
+     *
+     * @param buckets the audience buckets to group lines by
+     * @param <T> the type of the statements
+     * @return the collector
+     */
+    public static <T extends StatementView> Collector<T, ?, RevenueReport> collector(AudienceBuckets buckets) {
+        return Collector.of(() -> new ReportAccumulator(buckets), ReportAccumulator::add,
+                ReportAccumulator::merge, ReportAccumulator::toReport, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Prices invoices against a catalog and collects them into a report with the standard
+     * audience buckets. Each statement is dropped as soon as it has been added.
+     *
+     * @param catalog the plays the invoices refer to
+     * @return the collector
+     * @throws theater.data.UnknownPlayException if an invoice refers to a play missing from the catalog
+     */
+    public static Collector<Invoice, ?, RevenueReport> invoiceCollector(PlayCatalog catalog) {
+        return invoiceCollector(catalog, AudienceBuckets.standard());
+    }
+
+    /**
+     * Prices invoices against a catalog and collects them into a report.
+     * Each statement is dropped as soon as it has been added.
+     *
+     * @param catalog the plays the invoices refer to
+     * @param buckets the audience buckets to group lines by
+     * @return the collector
+     * @throws theater.data.UnknownPlayException if an invoice refers to a play missing from the catalog
+     */
+    public static Collector<Invoice, ?, RevenueReport> invoiceCollector(PlayCatalog catalog,
+                                                                       AudienceBuckets buckets) {
+        return Collector.of(() -> new ReportAccumulator(buckets),
+                (report, invoice) -> report.add(new ColumnarStatementData(catalog.resolve(invoice))),
+                ReportAccumulator::merge, ReportAccumulator::toReport, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Gets the number of statements in the report.
+     *
+     * @return the number of statements
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * Gets the totals over every statement.
+     *
+     * @return the overall rollup
+     */
+    public Rollup getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the rollups by play name.
+     *
+     * @return unmodifiable map of play name to rollup, sorted by name
+     */
+    public Map<String, Rollup> getByPlay() {
+        return byPlay;
+    }
+
+    /**
+     * Gets the rollups by play type.
+     *
+     * @return unmodifiable map of play type to rollup, sorted by type
+     */
+    public Map<String, Rollup> getByPlayType() {
+        return byPlayType;
+    }
+
+    /**
+     * Gets the rollups by customer.
+     *
+     * @return unmodifiable map of customer to rollup, sorted by customer
+     */
+    public Map<String, Rollup> getByCustomer() {
+        return byCustomer;
+    }
+
+    /**
+     * Gets the rollups by audience bucket, including empty buckets.
+     *
+     * @return unmodifiable map of bucket label to rollup, in bucket order
+     */
+    public Map<String, Rollup> getByAudience() {
+        return byAudience;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RevenueReport)) {
+            return false;
+        }
+        final RevenueReport report = (RevenueReport) other;
+        return statements == report.statements && total.equals(report.total) && byPlay.equals(report.byPlay)
+                && byPlayType.equals(report.byPlayType) && byCustomer.equals(report.byCustomer)
+                && byAudience.equals(report.byAudience);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statements, total, byPlay, byPlayType, byCustomer, byAudience);
+    }
+
+    @Override
+    public String toString() {
+        return "RevenueReport[statements=" + statements + ", total=" + total + ", byPlay=" + byPlay
+                + ", byPlayType=" + byPlayType + ", byCustomer=" + byCustomer + ", byAudience=" + byAudience + "]";
+    }
+}
@@ -0,0 +1,81 @@
+package theater.report;
+
+import java.util.Objects;
+
+/**
+ * Number of lines, revenue and volume credits summed over one group of a report.
+ * Instances are immutable.
+ */
+public final class Rollup {
+
+    /**
+     * The rollup of a group without any line.
+     */
+    public static final Rollup EMPTY = new Rollup(0, 0, 0);
+
+    private final long lines;
+    private final long amountCents;
+    private final long volumeCredits;
+
+    /**
+     * Creates a rollup.
+     *
+     * @param lines the number of performance lines
+     * @param amountCents the revenue in cents
+     * @param volumeCredits the volume credits earned
+     */
+    public Rollup(long lines, long amountCents, long volumeCredits) {
+        this.lines = lines;
+        this.amountCents = amountCents;
+        this.volumeCredits = volumeCredits;
+    }
+
+    /**
+     * Gets the number of performance lines in the group.
+     *
+     * @return the number of lines
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * Gets the revenue of the group (in cents).
+     *
+     * @return revenue in cents
+     */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Gets the volume credits earned in the group.
+     *
+     * @return volume credits
+     */
+    public long getVolumeCredits() {
+        return volumeCredits;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Rollup)) {
+            return false;
+        }
+        final Rollup rollup = (Rollup) other;
+        return lines == rollup.lines && amountCents == rollup.amountCents && volumeCredits == rollup.volumeCredits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lines, amountCents, volumeCredits);
+    }
+
+    @Override
+    public String toString() {
+        return "Rollup[lines=" + lines + ", amountCents=" + amountCents + ", volumeCredits=" + volumeCredits + "]";
+    }
+}
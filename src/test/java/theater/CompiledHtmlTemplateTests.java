@@ -0,0 +1,84 @@
+package theater;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.junit.Test;
+
+import theater.data.ColumnarStatementData;
+import theater.data.StatementData;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+import static theater.Fixtures.text;
+
+
+public class CompiledHtmlTemplateTests {
+
+    @Test
+    public void matchesExampleHTMLStatementTest() throws IOException {
+        Map<String, Play> plays = plays();
+        StatementData data = new StatementData(invoice(), plays);
+        CompiledHtmlTemplate template = new CompiledHtmlTemplate("\n", CurrencyFormatter.forLocale(Locale.US));
+        String expected = text("HTMLStatementExample.html").replace("\r\n", "\n");
+
+        assertEquals(expected, new String(template.render(data), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(data, out);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void matchesHTMLStatementPrinterTest() {
+        Map<String, Play> plays = plays("new_plays.json");
+        Invoice invoice = invoice("new_invoices.json");
+        CompiledHtmlTemplate template = new CompiledHtmlTemplate();
+
+        String expected = new HTMLStatementPrinter(invoice, plays).statement();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, new String(template.render(new ColumnarStatementData(invoice, plays)),
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void escapesNamesTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("evil", new Play("<script>alert('x')</script> & \"friends\"", "comedy"));
+        plays.put("intl", new Play("Été 🎭 演劇", "tragedy"));
+        Invoice invoice = new Invoice("Big & <Co>", List.of(new Performance("evil", 25), new Performance("intl", 31)));
+
+        String expected = new HTMLStatementPrinter(invoice, plays).statement();
+        String result = new String(new CompiledHtmlTemplate().render(new StatementData(invoice, plays)),
+                StandardCharsets.UTF_8);
+
+        assertEquals(expected, result);
+        assertEquals(true, result.contains("<h1>Statement for Big &amp; &lt;Co&gt;</h1>"));
+        assertEquals(true, result.contains(
+                "<td>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;friends&quot;</td>"));
+        assertArrayEquals(result.getBytes(StandardCharsets.UTF_8),
+                new CompiledHtmlTemplate().render(new StatementData(invoice, plays)));
+        assertEquals(true, result.contains("<td>Été 🎭 演劇</td>"));
+    }
+
+    @Test
+    public void nullNamesPrintAsNullTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("unnamed", new Play(null, "comedy"));
+        Invoice invoice = new Invoice(null, List.of(new Performance("unnamed", 25)));
+
+        String expected = new HTMLStatementPrinter(invoice, plays).statement();
+        String result = new String(new CompiledHtmlTemplate().render(new StatementData(invoice, plays)),
+                StandardCharsets.UTF_8);
+
+        assertEquals(expected, result);
+        assertEquals(true, result.contains("<h1>Statement for null</h1>"));
+        assertEquals(true, result.contains("<td>null</td>"));
+        assertEquals(true, new StatementPrinter(invoice, plays).statement().startsWith("Statement for null"));
+    }
+}
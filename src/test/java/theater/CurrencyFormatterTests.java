@@ -0,0 +1,62 @@
+package theater;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.NumberFormat;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+
+public class CurrencyFormatterTests {
+
+    private static final long[] AMOUNTS = {
+            0, 1, 99, 100, 199, 65000, 173000, 127500, 99999999, 100000000, 123456789012L,
+            -1, -100, -65000, -123456789012L, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE,
+    };
+
+    private static void assertMatchesNumberFormat(Locale locale, long amountInCents) {
+        String expected = NumberFormat.getCurrencyInstance(locale).format(amountInCents / 100);
+        assertEquals(locale + " " + amountInCents, expected,
+                CurrencyFormatter.forLocale(locale).format(amountInCents));
+    }
+
+    @Test
+    public void usdMatchesNumberFormatTest() {
+        for (long amount : AMOUNTS) {
+            assertMatchesNumberFormat(Locale.US, amount);
+        }
+        Random random = new Random(207);
+        for (int i = 0; i < 10000; i++) {
+            assertMatchesNumberFormat(Locale.US, random.nextInt());
+            assertMatchesNumberFormat(Locale.US, random.nextLong());
+        }
+    }
+
+    @Test
+    public void otherLocalesMatchNumberFormatTest() {
+        for (Locale locale : NumberFormat.getAvailableLocales()) {
+            for (long amount : AMOUNTS) {
+                assertMatchesNumberFormat(locale, amount);
+            }
+        }
+    }
+
+    @Test
+    public void appendsToAppendableTest() throws IOException {
+        StringWriter out = new StringWriter();
+        out.append("Amount owed is ");
+        CurrencyFormatter.forLocale(Locale.US).append(173000, out);
+
+        assertEquals("Amount owed is $1,730.00", out.toString());
+    }
+
+    @Test
+    public void formattersAreCachedPerLocaleTest() {
+        assertSame(CurrencyFormatter.forLocale(Locale.US), CurrencyFormatter.forLocale(Locale.US));
+    }
+}
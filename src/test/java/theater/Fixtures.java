@@ -0,0 +1,96 @@
+package theater;
+
+import theater.io.InvoiceReader;
+import theater.io.PlaysReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Plays and invoices shared by the tests, read from the test resources.
+ * season_plays.json holds a play of every standard type; invoices.json holds the BigCo invoice.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+
+    }
+
+    /**
+     * Reads the plays of every standard type.
+     *
+     * @return a new, modifiable map of playID to Play
+     */
+    public static Map<String, Play> plays() {
+        return plays("season_plays.json");
+    }
+
+    /**
+     * Reads the plays of a plays resource, such as new_plays.json.
+     *
+     * @param path the resource path
+     * @return a new, modifiable map of playID to Play
+     */
+    public static Map<String, Play> plays(String path) {
+        try (Reader source = open(path)) {
+            return PlaysReader.read(source);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads the BigCo invoice: hamlet for 55, as-like for 35 and othello for 40.
+     *
+     * @return the invoice
+     */
+    public static Invoice invoice() {
+        return invoice("invoices.json");
+    }
+
+    /**
+     * Reads the first invoice of an invoices resource, such as new_invoices.json.
+     *
+     * @param path the resource path
+     * @return the invoice
+     */
+    public static Invoice invoice(String path) {
+        final List<Invoice> invoices = new ArrayList<>();
+        try (Reader source = open(path)) {
+            InvoiceReader.read(source, invoices::add);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return invoices.get(0);
+    }
+
+    /**
+     * Reads a test resource as text, such as an expected statement.
+     *
+     * @param path the resource path
+     * @return the contents of the resource
+     */
+    public static String text(String path) {
+        try (InputStream in = stream(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static Reader open(String path) {
+        return new InputStreamReader(stream(path), StandardCharsets.UTF_8);
+    }
+
+    private static InputStream stream(String path) {
+        return Objects.requireNonNull(Fixtures.class.getClassLoader().getResourceAsStream(path), path);
+    }
+}
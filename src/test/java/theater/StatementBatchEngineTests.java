@@ -0,0 +1,61 @@
+package theater;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static theater.Fixtures.plays;
+
+
+public class StatementBatchEngineTests {
+
+    private static List<Invoice> invoices(List<String> playIDs, int count) {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Performance> performances = new ArrayList<>();
+            for (int j = 0; j <= i % 7; j++) {
+                performances.add(new Performance(playIDs.get((i + j) % playIDs.size()), 10 + (i * 31 + j) % 60));
+            }
+            invoices.add(new Invoice("Customer " + i, performances));
+        }
+        return invoices;
+    }
+
+    @Test
+    public void orderedBatchMatchesSequentialTest() {
+        Map<String, Play> plays = plays();
+        List<Invoice> invoices = invoices(new ArrayList<>(plays.keySet()), 500);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> result = new StatementBatchEngine(plays, StatementFormat.PLAIN_TEXT, pool)
+                    .statements(invoices);
+
+            assertEquals(invoices.size(), result.size());
+            for (int i = 0; i < invoices.size(); i++) {
+                assertEquals(new StatementPrinter(invoices.get(i), plays).statement(), result.get(i));
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void unorderedBatchRendersEveryInvoiceTest() {
+        Map<String, Play> plays = plays();
+        List<Invoice> invoices = invoices(new ArrayList<>(plays.keySet()), 500);
+        Map<Invoice, String> result = new ConcurrentHashMap<>();
+
+        new StatementBatchEngine(plays, StatementFormat.HTML)
+                .forEachUnordered(invoices.stream(), result::put);
+
+        assertEquals(invoices.size(), result.size());
+        for (Invoice invoice : invoices) {
+            assertEquals(new HTMLStatementPrinter(invoice, plays).statement(), result.get(invoice));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package theater;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.plays;
+
+
+public class StatementCacheTests {
+
+    private static Invoice invoice(String customer, String playID) {
+        return new Invoice(customer, List.of(new Performance(playID, 55), new Performance("as-like", 35)));
+    }
+
+    @Test
+    public void cachesByContentAndFormatTest() {
+        Map<String, Play> plays = plays();
+        StatementCache cache = new StatementCache(plays, 100, Duration.ofHours(1));
+
+        String first = cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        String second = cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        String html = cache.statement(invoice("BigCo", "hamlet"), StatementFormat.HTML);
+
+        assertSame(first, second);
+        assertEquals(new StatementPrinter(invoice("BigCo", "hamlet"), plays).statement(), first);
+        assertEquals(new HTMLStatementPrinter(invoice("BigCo", "hamlet"), plays).statement(), html);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void changedPlayIsNotServedStaleTest() {
+        Map<String, Play> plays = plays();
+        StatementCache cache = new StatementCache(plays, 100, Duration.ofHours(1));
+        cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        cache.statement(invoice("OtherCo", "othello"), StatementFormat.PLAIN_TEXT);
+
+        plays.put("hamlet", new Play("Hamlet, Prince of Denmark", "tragedy"));
+        String changed = cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        assertTrue(changed.contains("Hamlet, Prince of Denmark"));
+        assertEquals(0, cache.getHits());
+
+        cache.invalidatePlay("hamlet");
+        assertEquals(2, cache.getInvalidations());
+        assertEquals(1, cache.size());
+        cache.statement(invoice("OtherCo", "othello"), StatementFormat.PLAIN_TEXT);
+        assertEquals(1, cache.getHits());
+
+        cache.invalidatePlay("as-like");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedTest() {
+        StatementCache cache = new StatementCache(plays(), 2, Duration.ofHours(1));
+        Invoice a = invoice("A", "hamlet");
+        Invoice b = invoice("B", "hamlet");
+        Invoice c = invoice("C", "hamlet");
+
+        cache.statement(a, StatementFormat.PLAIN_TEXT);
+        for (int i = 0; i < 100; i++) {
+            cache.statement(invoice("Customer " + i, "othello"), StatementFormat.PLAIN_TEXT);
+        }
+        assertTrue(cache.size() <= 2);
+        assertEquals(101 - cache.size(), cache.getEvictions());
+
+        StatementCache single = new StatementCache(plays(), 1, Duration.ofHours(1));
+        single.statement(b, StatementFormat.PLAIN_TEXT);
+        single.statement(c, StatementFormat.PLAIN_TEXT);
+        single.statement(b, StatementFormat.PLAIN_TEXT);
+        assertEquals(0, single.getHits());
+        assertEquals(2, single.getEvictions());
+    }
+
+    @Test
+    public void expiresAfterTimeToLiveTest() {
+        long[] now = {0};
+        StatementCache cache = new StatementCache(plays(), 10, Duration.ofSeconds(60), () -> now[0]);
+        cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+
+        now[0] = Duration.ofSeconds(59).toNanos();
+        cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        assertEquals(1, cache.getHits());
+
+        now[0] = Duration.ofSeconds(60).toNanos();
+        cache.statement(invoice("BigCo", "hamlet"), StatementFormat.PLAIN_TEXT);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getExpirations());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void rejectsInvalidBoundsTest() {
+        try {
+            new StatementCache(plays(), 0, Duration.ofSeconds(1));
+            fail("expected a zero size to be rejected");
+        }
+        catch (IllegalArgumentException exception) {
+            // expected
+        }
+        try {
+            new StatementCache(plays(), 1, Duration.ZERO);
+            fail("expected a zero time to live to be rejected");
+        }
+        catch (IllegalArgumentException exception) {
+            // expected
+        }
+    }
+
+    @Test
+    public void concurrentLookupsTest() throws Exception {
+        Map<String, Play> plays = plays();
+        StatementCache cache = new StatementCache(plays, 64, Duration.ofHours(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                Invoice invoice = invoice("Customer " + i % 32, i % 3 == 0 ? "hamlet" : "othello");
+                StatementFormat format = StatementFormat.values()[i % 2];
+                results.add(pool.submit(() ->
+                        format.printer(invoice, plays).statement().equals(cache.statement(invoice, format))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        assertEquals(2000, cache.getHits() + cache.getMisses());
+        assertNotEquals(0, cache.getHits());
+        assertTrue(cache.size() <= 64);
+    }
+}
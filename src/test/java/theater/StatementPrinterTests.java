@@ -4,11 +4,18 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import theater.data.LineCursor;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
 
 
 public class StatementPrinterTests {
@@ -66,4 +73,68 @@ public class StatementPrinterTests {
         }
 
     }
+
+    @Test
+    public void streamedStatementMatchesStatementTest() throws IOException {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("hamlet", new Play("Hamlet", "tragedy"));
+        plays.put("as-like", new Play("As You Like It", "comedy"));
+
+        List<Performance> performances = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            performances.add(new Performance(i % 2 == 0 ? "hamlet" : "as-like", i % 90));
+        }
+        Invoice invoice = new Invoice("BigCo", performances);
+
+        for (StatementPrinter statementPrinter : List.of(
+                new StatementPrinter(invoice, plays), new HTMLStatementPrinter(invoice, plays))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            statementPrinter.writeTo(out, StandardCharsets.UTF_8);
+
+            assertEquals(statementPrinter.statement(), out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void firstEditReusesRenderedLinesTest() {
+        final int[] rendered = {0};
+        StatementRenderer counting = new StatementRenderer() {
+            @Override
+            protected void appendLine(LineCursor line, Appendable out) throws IOException {
+                rendered[0]++;
+                super.appendLine(line, out);
+            }
+        };
+        StatementPrinter printer = new StatementPrinter(invoice(), plays(), counting) { };
+        String before = printer.statement();
+        assertEquals(3, rendered[0]);
+
+        printer.addPerformance(new Performance("hamlet", 10));
+        String after = printer.statement();
+        assertEquals(4, rendered[0]);
+        assertTrue(after.startsWith(before.substring(0, before.indexOf("Amount owed"))));
+        List<Performance> performances = new ArrayList<>(invoice().getPerformances());
+        performances.add(new Performance("hamlet", 10));
+        assertEquals(new StatementPrinter(new Invoice("BigCo", performances), plays()).statement(), after);
+    }
+
+    @Test
+    public void unknownPlayFailsAtConstructionTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("hamlet", new Play("Hamlet", "tragedy"));
+        plays.put("cats", new Play("Cats", "opera"));
+
+        for (String playID : List.of("macbeth", "cats")) {
+            Invoice invoice = new Invoice("BigCo", List.of(new Performance("hamlet", 55),
+                    new Performance(playID, 10)));
+            try {
+                new StatementPrinter(invoice, plays);
+                fail("expected " + playID + " to be rejected before printing");
+            }
+            catch (RuntimeException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("macbeth")
+                        || expected.getMessage().contains("opera"));
+            }
+        }
+    }
 }
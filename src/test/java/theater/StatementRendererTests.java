@@ -0,0 +1,179 @@
+package theater;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import theater.data.ColumnarStatementData;
+import theater.data.StatementData;
+import theater.data.StatementView;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+import static theater.Fixtures.text;
+
+
+public class StatementRendererTests {
+
+    private static StatementView named(String customer) {
+        Map<String, Play> plays = Map.of("odyssey", new Play("Ὀδύσσεια 🎭 ½", "tragedy"));
+        return new StatementData(new Invoice(customer, List.of(new Performance("odyssey", 40))), plays);
+    }
+
+    private static byte[] viaWriter(String text, Charset charset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, charset)) {
+            writer.write(text);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void matchesPrintersTest() throws IOException {
+        StatementData data = new StatementData(invoice(), plays());
+        for (StatementFormat format : StatementFormat.values()) {
+            String expected = format.printer(invoice(), plays()).statement();
+            assertEquals(expected, format.renderer().render(data));
+
+            StringBuilder out = new StringBuilder();
+            format.renderer().render(data, out);
+            assertEquals(expected, out.toString());
+        }
+        assertEquals(text("HTMLStatementExample.html"),
+                StatementFormat.HTML.renderer().render(new ColumnarStatementData(invoice(), plays())));
+    }
+
+    @Test
+    public void encodesLikeOutputStreamWriterTest() throws IOException {
+        StringBuilder customer = new StringBuilder();
+        // long enough to cross several encoding chunks, with pairs split across chunk ends
+        for (int i = 0; i < 3_000; i++) {
+            customer.append(i % 7 == 0 ? "🎭" : "é").append((char) ('a' + i % 26));
+        }
+        customer.append('\uD800');
+        StatementView data = named(customer.toString());
+        for (StatementFormat format : StatementFormat.values()) {
+            String text = format.renderer().render(data);
+            for (Charset charset : List.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+                    StandardCharsets.UTF_16)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                format.renderer().render(data, out, charset);
+                assertArrayEquals(format + " " + charset, viaWriter(text, charset), out.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void printerWritesThroughRendererTest() throws IOException {
+        StatementPrinter printer = new HTMLStatementPrinter(named("Zoë & Co"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        printer.writeTo(out, StandardCharsets.UTF_8);
+        assertEquals(printer.statement(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void streamsInBoundedChunksTest() throws IOException {
+        StatementView data = named("x".repeat(1 << 20));
+        int[] largestWrite = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                largestWrite[0] = Math.max(largestWrite[0], len);
+                super.write(b, off, len);
+            }
+        };
+        StatementFormat.PLAIN_TEXT.renderer().render(data, out, StandardCharsets.UTF_8);
+
+        assertEquals(StatementFormat.PLAIN_TEXT.renderer().render(data), out.toString(StandardCharsets.UTF_8));
+        assertTrue(largestWrite[0] + " bytes in one write", largestWrite[0] <= 8192);
+    }
+
+    @Test
+    public void buffersRecoverAfterLargeStatementTest() {
+        StatementRenderer renderer = StatementFormat.PLAIN_TEXT.renderer();
+        StatementView small = named("small");
+        String expected = renderer.render(small);
+        String huge = renderer.render(named("x".repeat(3 << 20)));
+        assertTrue(huge.length() > 3 << 20);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected, renderer.render(small));
+        }
+    }
+
+    @Test
+    public void nestedRenderingTest() {
+        StatementRenderer inner = StatementFormat.PLAIN_TEXT.renderer();
+        StatementRenderer outer = new StatementRenderer() {
+            @Override
+            protected void appendHeader(String customer, Appendable out) throws IOException {
+                out.append(inner.render(named("inner")));
+                super.appendHeader(customer, out);
+            }
+        };
+
+        assertEquals(inner.render(named("inner")) + inner.render(named("outer")), outer.render(named("outer")));
+    }
+
+    @Test
+    public void sharedAcrossThreadsTest() throws Exception {
+        StatementRenderer renderer = StatementFormat.HTML.renderer();
+        List<StatementView> statements = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            statements.add(named("Customer " + "#".repeat(i * 100)));
+            expected.add(new HTMLStatementPrinter(statements.get(i)).statement());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int index = i % statements.size();
+                results.add(pool.submit(() -> expected.get(index).equals(renderer.render(statements.get(index)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void steadyStateAllocatesLittleTest() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        StatementView data = new ColumnarStatementData(invoice(), plays());
+        StatementRenderer renderer = StatementFormat.HTML.renderer();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+        for (int i = 0; i < 20_000; i++) {
+            out.reset();
+            renderer.render(data, out, StandardCharsets.UTF_8);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1_000; i++) {
+            out.reset();
+            renderer.render(data, out, StandardCharsets.UTF_8);
+        }
+        long perStatement = (threads.getThreadAllocatedBytes(thread) - before) / 1_000;
+        assertTrue(perStatement + " bytes per statement", perStatement < 256);
+    }
+}
@@ -0,0 +1,129 @@
+package theater.calculator;
+
+import org.junit.Test;
+
+import theater.Performance;
+import theater.Play;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+public class BulkPricingTests {
+
+    private static final int[] EDGES = {
+            Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1_000_000, -31, -30, -21, -20, -1, 0, 1, 4, 5,
+            19, 20, 21, 29, 30, 31, 1_000_000, Integer.MAX_VALUE / 10_000, Integer.MAX_VALUE - 1, Integer.MAX_VALUE,
+    };
+
+    private static List<PricingStrategy> strategies() {
+        List<PricingStrategy> strategies = new ArrayList<>(Arrays.asList(StandardPricing.values()));
+        for (StandardPricing pricing : StandardPricing.values()) {
+            strategies.add(new PricingTable(pricing, 100));
+        }
+        strategies.addAll(RateCard.standard().getRules().values());
+        // the interface defaults, through a strategy that overrides only the scalar methods
+        strategies.add(audience -> 7L * audience);
+        return strategies;
+    }
+
+    private static int[] randomAudiences(Random random, int size) {
+        int[] audiences = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    audiences[i] = random.nextInt();
+                    break;
+                case 1:
+                    audiences[i] = EDGES[random.nextInt(EDGES.length)];
+                    break;
+                default:
+                    audiences[i] = random.nextInt(200) - 20;
+                    break;
+            }
+        }
+        return audiences;
+    }
+
+    private static void assertMatchesScalar(PricingStrategy strategy, int[] audiences) {
+        long[] amounts = new long[audiences.length];
+        int[] credits = new int[audiences.length];
+        strategy.amounts(audiences, amounts);
+        strategy.volumeCredits(audiences, credits);
+        for (int i = 0; i < audiences.length; i++) {
+            assertEquals(strategy + " amount of " + audiences[i], strategy.amount(audiences[i]), amounts[i]);
+            assertEquals(strategy + " credits of " + audiences[i],
+                    strategy.volumeCredits(audiences[i]), credits[i]);
+        }
+    }
+
+    @Test
+    public void bulkMatchesScalarOnRandomAudiencesTest() {
+        Random random = new Random(20251018);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] audiences = randomAudiences(random, random.nextInt(2000));
+            for (PricingStrategy strategy : strategies()) {
+                assertMatchesScalar(strategy, audiences);
+            }
+        }
+    }
+
+    @Test
+    public void bulkMatchesScalarOnEdgesTest() {
+        for (PricingStrategy strategy : strategies()) {
+            assertMatchesScalar(strategy, EDGES);
+            assertMatchesScalar(strategy, new int[0]);
+        }
+    }
+
+    @Test
+    public void bulkMatchesCalculatorsTest() {
+        int[] audiences = new int[500];
+        for (int i = 0; i < audiences.length; i++) {
+            audiences[i] = i - 100;
+        }
+        for (StandardPricing pricing : StandardPricing.values()) {
+            long[] amounts = new long[audiences.length];
+            int[] credits = new int[audiences.length];
+            pricing.amounts(audiences, amounts);
+            pricing.volumeCredits(audiences, credits);
+            for (int i = 0; i < audiences.length; i++) {
+                AbstractPerformanceCalculator calculator = pricing.createCalculator(
+                        new Performance("id", audiences[i]), new Play("Play", pricing.getType()));
+                assertEquals(calculator.amount(), amounts[i]);
+                assertEquals(calculator.volumeCredits(), credits[i]);
+            }
+        }
+    }
+
+    @Test
+    public void countsBulkTableLookupsTest() {
+        PricingTable table = new PricingTable(StandardPricing.TRAGEDY, 100, true);
+        table.amounts(new int[] {0, 50, 100, 101, -1}, new long[5]);
+
+        assertEquals(3, table.getHits());
+        assertEquals(2, table.getMisses());
+    }
+
+    @Test
+    public void rejectsShortOutputTest() {
+        for (PricingStrategy strategy : strategies()) {
+            try {
+                strategy.amounts(new int[3], new long[2]);
+                fail("expected a short output array to be rejected by " + strategy);
+            }
+            catch (IndexOutOfBoundsException exception) {
+                // expected
+            }
+            try {
+                strategy.volumeCredits(new int[3], new int[2]);
+                fail("expected a short output array to be rejected by " + strategy);
+            }
+            catch (IndexOutOfBoundsException exception) {
+                // expected
+            }
+        }
+    }
+}
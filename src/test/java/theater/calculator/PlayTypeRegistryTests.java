@@ -0,0 +1,85 @@
+package theater.calculator;
+
+import org.junit.Test;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementPrinter;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+
+public class PlayTypeRegistryTests {
+
+    /**
+     * Custom genre discovered through META-INF/services in the test resources.
+     */
+    public static class MusicalProvider implements PlayTypeProvider {
+
+        private static final PricingStrategy PRICING = audience -> 50000 + 100 * audience;
+
+        @Override
+        public String getType() {
+            return "musical";
+        }
+
+        @Override
+        public PricingStrategy getPricing() {
+            return PRICING;
+        }
+
+        @Override
+        public AbstractPerformanceCalculator createCalculator(Performance performance, Play play) {
+            return new AbstractPerformanceCalculator(performance, play) {
+                @Override
+                public int amount() {
+                    return Math.toIntExact(PRICING.amount(getPerformance().getAudience()));
+                }
+            };
+        }
+    }
+
+    @Test
+    public void builtInTypesTest() {
+        PlayTypeRegistry registry = PlayTypeRegistry.getDefault();
+
+        assertSame(StandardPricing.TRAGEDY, registry.pricingFor("tragedy"));
+        assertSame(StandardPricing.COMEDY, registry.pricingFor("comedy"));
+        assertSame(StandardPricing.HISTORY, registry.pricingFor("history"));
+        assertSame(StandardPricing.PASTORAL, registry.pricingFor("pastoral"));
+    }
+
+    @Test
+    public void discoveredTypeIsPricedTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("cats", new Play("Cats", "musical"));
+        Invoice invoice = new Invoice("Jellicle", List.of(new Performance("cats", 40)));
+
+        String result = new StatementPrinter(invoice, plays).statement().replace("\r\n", "\n");
+
+        assertEquals("Statement for Jellicle\n"
+                + "  Cats: $540.00 (40 seats)\n"
+                + "Amount owed is $540.00\n"
+                + "You earned 10 credits\n", result);
+    }
+
+    @Test
+    public void unknownTypeFailsFastTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("godot", new Play("Waiting for Godot", "absurdist"));
+        Invoice invoice = new Invoice("Vladimir", List.of(new Performance("godot", 2)));
+
+        try {
+            new StatementPrinter(invoice, plays).statement();
+            fail("expected the unknown play type to be rejected");
+        }
+        catch (RuntimeException exception) {
+            assertEquals("unknown type: absurdist", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package theater.calculator;
+
+import org.junit.Test;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.data.StatementData;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+public class PricingTableTests {
+
+    @Test
+    public void tableMatchesStrategyTest() {
+        for (StandardPricing pricing : StandardPricing.values()) {
+            PricingTable table = new PricingTable(pricing, 200);
+            for (int audience = -5; audience <= 400; audience++) {
+                assertEquals(pricing + " " + audience, pricing.amount(audience), table.amount(audience));
+                assertEquals(pricing + " " + audience, pricing.volumeCredits(audience), table.volumeCredits(audience));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsOutOfRangeMaxAudienceTest() {
+        for (int maxAudience : new int[] {-1, PricingTable.MAX_TABLE_AUDIENCE + 1, Integer.MAX_VALUE}) {
+            try {
+                new PricingTable(StandardPricing.COMEDY, maxAudience);
+                fail("expected maxAudience " + maxAudience + " to be rejected");
+            }
+            catch (IllegalArgumentException exception) {
+                // expected
+            }
+        }
+        PricingTable largest = new PricingTable(StandardPricing.COMEDY, PricingTable.MAX_TABLE_AUDIENCE);
+        assertEquals(StandardPricing.COMEDY.amount(PricingTable.MAX_TABLE_AUDIENCE),
+                largest.amount(PricingTable.MAX_TABLE_AUDIENCE));
+    }
+
+    @Test
+    public void countsHitsAndMissesTest() {
+        PricingTable table = new PricingTable(StandardPricing.COMEDY, 100, true);
+        PricingTable uncounted = new PricingTable(StandardPricing.COMEDY, 100);
+        for (PricingTable lookups : List.of(table, uncounted)) {
+            lookups.amount(0);
+            lookups.amount(100);
+            lookups.volumeCredits(55);
+            lookups.amount(101);
+            lookups.volumeCredits(-1);
+        }
+
+        assertEquals(3, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(0, uncounted.getHits());
+        assertEquals(0, uncounted.getMisses());
+    }
+
+    @Test
+    public void tabulatedRegistryPricesLikeDefaultTest() {
+        Map<String, Play> plays = new HashMap<>();
+        plays.put("hamlet", new Play("Hamlet", "tragedy"));
+        plays.put("as-like", new Play("As You Like It", "comedy"));
+        Invoice invoice = new Invoice("BigCo", List.of(
+                new Performance("hamlet", 55),
+                new Performance("as-like", 35),
+                new Performance("hamlet", 5000)));
+        PlayTypeRegistry registry = PlayTypeRegistry.getDefault().withPricingTables(1000, true);
+
+        StatementData expected = new StatementData(invoice, plays);
+        StatementData actual = new StatementData(invoice, plays, registry);
+
+        assertEquals(expected.getTotalAmountCents(), actual.getTotalAmountCents());
+        assertEquals(expected.getTotalVolumeCredits(), actual.getTotalVolumeCredits());
+        PricingTable tragedy = (PricingTable) registry.pricingFor("tragedy");
+        assertEquals(2, tragedy.getHits());
+        assertEquals(2, tragedy.getMisses());
+    }
+}
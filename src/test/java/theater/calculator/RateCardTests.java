@@ -0,0 +1,212 @@
+package theater.calculator;
+
+import org.junit.Test;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementPrinter;
+import theater.data.StatementData;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.plays;
+
+
+public class RateCardTests {
+
+    private static String loadString(String path) {
+        try {
+            return new String(Objects.requireNonNull(RateCardTests.class
+                            .getClassLoader()
+                            .getResourceAsStream(path))
+                    .readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException exception) {
+                fail("resource file could not be loaded prior to test executing");
+            }
+        return "";
+    }
+
+    private static RateCard parse(String text) throws IOException {
+        return RateCard.parse(new StringReader(text));
+    }
+
+    private static Invoice invoice() {
+        return new Invoice("BigCo", List.of(new Performance("hamlet", 55), new Performance("as-like", 35),
+                new Performance("henry-v", 20), new Performance("tempest", 41)));
+    }
+
+    private static void assertSamePricing(PricingStrategy expected, PricingStrategy actual) {
+        int[] audiences = new int[2_000];
+        for (int i = 0; i < audiences.length; i++) {
+            audiences[i] = i - 500;
+        }
+        long[] amounts = new long[audiences.length];
+        int[] credits = new int[audiences.length];
+        actual.amounts(audiences, amounts);
+        actual.volumeCredits(audiences, credits);
+        for (int i = 0; i < audiences.length; i++) {
+            assertEquals(expected + " amount of " + audiences[i], expected.amount(audiences[i]),
+                    actual.amount(audiences[i]));
+            assertEquals(expected + " credits of " + audiences[i], expected.volumeCredits(audiences[i]),
+                    actual.volumeCredits(audiences[i]));
+            assertEquals(expected + " bulk amount of " + audiences[i], expected.amount(audiences[i]), amounts[i]);
+            assertEquals(expected + " bulk credits of " + audiences[i], expected.volumeCredits(audiences[i]),
+                    credits[i]);
+        }
+    }
+
+    @Test
+    public void standardRulesMatchStandardPricingTest() {
+        Map<String, PricingRule> rules = RateCard.standard().getRules();
+        assertEquals(StandardPricing.values().length, rules.size());
+        for (StandardPricing pricing : StandardPricing.values()) {
+            assertSamePricing(pricing, rules.get(pricing.getType()));
+        }
+    }
+
+    @Test
+    public void parsedCardEqualsStandardCardTest() throws IOException {
+        RateCard card = parse(loadString("standard-rates.properties"));
+        assertEquals(RateCard.standard().getRules(), card.getRules());
+    }
+
+    @Test
+    public void registryPrintsSameStatementTest() throws IOException {
+        PlayTypeRegistry registry = parse(loadString("standard-rates.properties"))
+                .registry(PlayTypeRegistry.getDefault());
+        Map<String, Play> plays = plays();
+
+        String expected = new StatementPrinter(new StatementData(invoice(), plays)).statement();
+        String actual = new StatementPrinter(new StatementData(invoice(), plays, registry)).statement();
+        assertEquals(expected, actual);
+        assertEquals(StandardPricing.TRAGEDY.amount(55),
+                registry.createCalculator(new Performance("hamlet", 55), plays.get("hamlet")).amountCents());
+    }
+
+    @Test
+    public void changedRateChangesStatementTest() throws IOException {
+        String rates = loadString("standard-rates.properties")
+                .replace("history.base = 20000", "history.base = 25000");
+        PlayTypeRegistry registry = parse(rates).registry(PlayTypeRegistry.getDefault());
+        StatementData data = new StatementData(invoice(), plays(), registry);
+
+        assertEquals(new StatementData(invoice(), plays()).getTotalAmountCents() + 5_000,
+                data.getTotalAmountCents());
+    }
+
+    @Test
+    public void unlistedTypesKeepBasePricingTest() throws IOException {
+        PlayTypeRegistry registry = parse("musical.base = 50000\nmusical.threshold = 0\n"
+                + "musical.perPersonOverThreshold = 100\nmusical.creditThreshold = 30\n")
+                .registry(PlayTypeRegistry.getDefault());
+
+        assertSame(StandardPricing.TRAGEDY, registry.pricingFor("tragedy"));
+        assertEquals(55_000, registry.pricingFor("musical").amount(50));
+        assertTrue(registry.getTypes().contains("musical"));
+    }
+
+    @Test
+    public void rejectsInvalidRatesTest() {
+        assertRejected("tragedy.base = 1\ntragedy.threshold = 1\ntragedy.creditThreshold = 1\n",
+                "tragedy.perPersonOverThreshold");
+        assertRejected("tragedy.bsae = 40000\n", "tragedy.bsae");
+        assertRejected("base = 40000\n", "base");
+        assertRejected("tragedy.base = forty\n", "tragedy.base");
+        assertRejected("tragedy.base = 1\ntragedy.threshold = 99999999999\ntragedy.perPersonOverThreshold = 1\n"
+                + "tragedy.creditThreshold = 1\n", "tragedy");
+        assertRejected("comedy.base = 1\ncomedy.threshold = 1\ncomedy.perPersonOverThreshold = 1\n"
+                + "comedy.creditThreshold = 1\ncomedy.creditDivisor = -5\n", "comedy");
+        assertRejected("history.base = 1\nhistory.threshold = -2147483648\nhistory.perPersonOverThreshold = 1\n"
+                + "history.creditThreshold = 1\n", "history");
+        assertRejected("pastoral.base = 1\npastoral.threshold = 1\npastoral.capacity = -1\n"
+                + "pastoral.perPersonOverThreshold = 1\npastoral.creditThreshold = 1\n", "pastoral");
+    }
+
+    @Test
+    public void extremeAudiencesPriceAlikeTest() {
+        PricingRule rule = PricingRule.builder().base(1).threshold(0).capacity(Integer.MAX_VALUE)
+                .overThresholdAmount(7).perPersonOverThreshold(3).build();
+        int[] audiences = {Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE};
+        long[] amounts = new long[audiences.length];
+        rule.amounts(audiences, amounts);
+        for (int i = 0; i < audiences.length; i++) {
+            long audience = audiences[i];
+            long expected = 1 + (audience > 0 ? 7 + 3 * (audience - Integer.MAX_VALUE) : 0);
+            assertEquals("amount of " + audience, expected, rule.amount(audiences[i]));
+            assertEquals("bulk amount of " + audience, expected, amounts[i]);
+        }
+    }
+
+    private static void assertRejected(String rates, String expectedInMessage) {
+        try {
+            parse(rates);
+            fail("expected " + expectedInMessage + " to be rejected");
+        }
+        catch (IllegalArgumentException exception) {
+            assertTrue(exception.getMessage(), exception.getMessage().contains(expectedInMessage));
+        }
+        catch (IOException exception) {
+            fail(exception.toString());
+        }
+    }
+
+    @Test
+    public void reloadSwapsRegistryTest() throws IOException {
+        Path file = Files.createTempFile("rates", ".properties");
+        try {
+            String rates = loadString("standard-rates.properties");
+            Files.writeString(file, rates);
+            ReloadableRegistry reloadable = new ReloadableRegistry(file, PlayTypeRegistry.getDefault());
+            PlayTypeRegistry before = reloadable.get();
+            assertEquals(20_000, before.pricingFor("history").amount(10));
+            assertFalse(reloadable.reloadIfModified());
+
+            Files.writeString(file, rates.replace("history.base = 20000", "history.base = 21000"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(
+                    Files.getLastModifiedTime(file).toMillis() + 10_000));
+            assertTrue(reloadable.reloadIfModified());
+            assertEquals(21_000, reloadable.get().pricingFor("history").amount(10));
+            assertEquals(20_000, before.pricingFor("history").amount(10));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void failedReloadKeepsRegistryTest() throws IOException {
+        Path file = Files.createTempFile("rates", ".properties");
+        try {
+            Files.writeString(file, loadString("standard-rates.properties"));
+            ReloadableRegistry reloadable = new ReloadableRegistry(file, PlayTypeRegistry.getDefault());
+            PlayTypeRegistry loaded = reloadable.get();
+
+            Files.writeString(file, "history.base = lots\n");
+            try {
+                reloadable.reload();
+                fail("expected the broken rate card to be rejected");
+            }
+            catch (IllegalArgumentException expected) {
+                assertSame(loaded, reloadable.get());
+            }
+            assertNotEquals(null, reloadable.get().pricingFor("history"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
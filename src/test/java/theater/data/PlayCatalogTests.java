@@ -0,0 +1,91 @@
+package theater.data;
+
+import org.junit.Test;
+
+import theater.HTMLStatementPrinter;
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementPrinter;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+
+
+public class PlayCatalogTests {
+
+    @Test
+    public void indexesPlaysDenselyTest() {
+        Map<String, Play> plays = plays();
+        PlayCatalog catalog = new PlayCatalog(plays);
+
+        assertEquals(5, catalog.size());
+        assertEquals(0, catalog.indexOf("as-like"));
+        assertEquals(1, catalog.indexOf("hamlet"));
+        assertEquals(2, catalog.indexOf("henry-v"));
+        assertEquals(4, catalog.indexOf("tempest"));
+        assertEquals(-1, catalog.indexOf("macbeth"));
+        assertSame(plays.get("hamlet"), catalog.getPlay(1));
+        assertEquals("henry-v", catalog.getPlayID(2));
+        assertEquals(40000 + 1000 * 25, catalog.getPricing(1).amount(55));
+    }
+
+    @Test
+    public void resolvedInvoiceRendersLikeInvoiceTest() {
+        PlayCatalog catalog = new PlayCatalog(plays());
+        ResolvedInvoice resolved = catalog.resolve(invoice());
+
+        assertEquals("BigCo", resolved.getCustomer());
+        assertEquals(3, resolved.size());
+        assertEquals(3, resolved.getPlayIndex(2));
+        assertEquals(40, resolved.getAudience(2));
+
+        ColumnarStatementData data = new ColumnarStatementData(resolved);
+        assertEquals(new StatementPrinter(invoice(), plays()).statement(), new StatementPrinter(data).statement());
+        assertEquals(new HTMLStatementPrinter(invoice(), plays()).statement(),
+                new HTMLStatementPrinter(data).statement());
+    }
+
+    @Test
+    public void reportsEveryUnknownPlayUpFrontTest() {
+        PlayCatalog catalog = new PlayCatalog(plays());
+        Invoice invoice = new Invoice("BigCo", List.of(
+                new Performance("macbeth", 10),
+                new Performance("hamlet", 10),
+                new Performance("lear", 10),
+                new Performance("macbeth", 20)));
+        try {
+            catalog.resolve(invoice);
+            fail("expected the unknown plays to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals(List.of("macbeth", "lear"), exception.getPlayIDs());
+            assertEquals("BigCo", exception.getCustomer());
+            assertEquals("unknown plays macbeth, lear in invoice for BigCo", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void statementDataReportsUnknownPlayTest() {
+        Invoice invoice = new Invoice("BigCo", List.of(new Performance("macbeth", 10)));
+        try {
+            new StatementData(invoice, plays());
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals("unknown play macbeth in invoice for BigCo", exception.getMessage());
+        }
+        try {
+            new ColumnarStatementData(invoice, plays());
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals(List.of("macbeth"), exception.getPlayIDs());
+        }
+    }
+}
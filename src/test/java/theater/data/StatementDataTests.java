@@ -0,0 +1,286 @@
+package theater.data;
+
+import org.junit.Test;
+
+import theater.HTMLStatementPrinter;
+import theater.Invoice;
+import theater.Performance;
+import theater.StatementPrinter;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+
+
+public class StatementDataTests {
+
+    private static void assertSameLines(StatementData expected, StatementData actual) {
+        assertEquals(expected.getPerformances().size(), actual.getPerformances().size());
+        for (int i = 0; i < expected.getPerformances().size(); i++) {
+            PerformanceData e = expected.getPerformances().get(i);
+            PerformanceData a = actual.getPerformances().get(i);
+            assertEquals(e.getPlayName(), a.getPlayName());
+            assertEquals(e.getPlayType(), a.getPlayType());
+            assertEquals(e.getAudience(), a.getAudience());
+            assertEquals(e.getAmount(), a.getAmount());
+            assertEquals(e.getVolumeCredits(), a.getVolumeCredits());
+        }
+    }
+
+    @Test
+    public void lazyTotalsMatchEagerTest() {
+        StatementData eager = new StatementData(invoice(), plays());
+        StatementData lazy = StatementData.lazy(invoice(), plays());
+
+        assertEquals(eager.getTotalAmount(), lazy.getTotalAmount());
+        assertEquals(eager.getTotalVolumeCredits(), lazy.getTotalVolumeCredits());
+        assertSameLines(eager, lazy);
+    }
+
+    @Test
+    public void lazyLinesMatchEagerTest() {
+        StatementData eager = new StatementData(invoice(), plays());
+        StatementData lazy = StatementData.lazy(invoice(), plays());
+
+        assertSameLines(eager, lazy);
+        assertEquals(eager.getTotalAmount(), lazy.getTotalAmount());
+        assertEquals(eager.getTotalVolumeCredits(), lazy.getTotalVolumeCredits());
+    }
+
+    @Test
+    public void lazyTotalsKeepAdjustmentsTest() {
+        StatementData lazy = StatementData.lazy(invoice(), plays());
+        lazy.addToTotalAmount(100);
+        lazy.addToTotalVolumeCredits(1);
+
+        StatementData eager = new StatementData(invoice(), plays());
+        lazy.getPerformances();
+
+        assertEquals(eager.getTotalAmount() + 100, lazy.getTotalAmount());
+        assertEquals(eager.getTotalVolumeCredits() + 1, lazy.getTotalVolumeCredits());
+    }
+
+    @Test
+    public void columnarMatchesStatementDataTest() {
+        StatementData expected = new StatementData(invoice(), plays());
+        ColumnarStatementData columnar = new ColumnarStatementData(invoice(), plays());
+
+        assertEquals(expected.getCustomer(), columnar.getCustomer());
+        assertEquals(expected.getTotalAmount(), columnar.getTotalAmount());
+        assertEquals(expected.getTotalVolumeCredits(), columnar.getTotalVolumeCredits());
+
+        LineCursor line = columnar.cursor();
+        for (PerformanceData pd : expected.getPerformances()) {
+            assertTrue(line.next());
+            assertEquals(pd.getPlayName(), line.getPlayName());
+            assertEquals(pd.getPlayType(), line.getPlayType());
+            assertEquals(pd.getAudience(), line.getAudience());
+            assertEquals(pd.getAmount(), line.getAmount());
+            assertEquals(pd.getVolumeCredits(), line.getVolumeCredits());
+        }
+        assertFalse(line.next());
+    }
+
+    @Test
+    public void columnarRendersLikeInvoiceTest() {
+        ColumnarStatementData columnar = new ColumnarStatementData(invoice(), plays());
+
+        assertEquals(new StatementPrinter(invoice(), plays()).statement(),
+                new StatementPrinter(columnar).statement());
+        assertEquals(new HTMLStatementPrinter(invoice(), plays()).statement(),
+                new HTMLStatementPrinter(columnar).statement());
+    }
+
+    @Test
+    public void totalsBeyondIntRangeTest() {
+        Invoice invoice = new Invoice("Season Pass", List.of(
+                new Performance("hamlet", 2_000_000),
+                new Performance("hamlet", 2_000_000)));
+        StatementData data = new StatementData(invoice, plays());
+
+        assertEquals(4_000_020_000L, data.getTotalAmountCents());
+        assertEquals(4_000_020_000L, new ColumnarStatementData(invoice, plays()).getTotalAmountCents());
+        try {
+            data.getTotalAmount();
+            fail("expected the int total to be rejected");
+        }
+        catch (ArithmeticException exception) {
+            // the total does not fit in an int
+        }
+        assertTrue(new StatementPrinter(invoice, plays()).statement().contains("Amount owed is $40,000,200.00"));
+    }
+
+    @Test
+    public void addAndRemoveUpdateTotalsTest() {
+        StatementData data = StatementData.lazy(invoice(), plays());
+        data.addPerformance(new Performance("as-like", 20));
+        data.removePerformance(0);
+
+        Invoice edited = new Invoice("BigCo", List.of(
+                new Performance("as-like", 35),
+                new Performance("othello", 40),
+                new Performance("as-like", 20)));
+        StatementData expected = new StatementData(edited, plays());
+
+        assertEquals(expected.getTotalAmountCents(), data.getTotalAmountCents());
+        assertEquals(expected.getTotalVolumeCredits(), data.getTotalVolumeCredits());
+        assertSameLines(expected, data);
+    }
+
+    @Test
+    public void editedPrinterRendersChangedInvoiceTest() {
+        StatementPrinter printer = new HTMLStatementPrinter(invoice(), plays());
+        printer.statement();
+        printer.addPerformance(new Performance("hamlet", 10));
+        printer.removePerformance(1);
+        printer.statement();
+        printer.addPerformance(new Performance("as-like", 70));
+
+        Invoice edited = new Invoice("BigCo", List.of(
+                new Performance("hamlet", 55),
+                new Performance("othello", 40),
+                new Performance("hamlet", 10),
+                new Performance("as-like", 70)));
+        assertEquals(new HTMLStatementPrinter(edited, plays()).statement(), printer.statement());
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByEditsTest() {
+        StatementData data = StatementData.lazy(invoice(), plays());
+        StatementSnapshot snapshot = data.snapshot();
+        String before = new StatementPrinter(snapshot).statement();
+
+        data.addPerformance(new Performance("hamlet", 10));
+        data.setCustomer("OtherCo");
+        data.addToTotalAmount(100);
+
+        assertEquals(before, new StatementPrinter(snapshot).statement());
+        assertEquals(new StatementPrinter(invoice(), plays()).statement(), before);
+        assertEquals(3, snapshot.getPerformances().size());
+        assertEquals(4, data.snapshot().getPerformances().size());
+        assertEquals(snapshot, StatementSnapshot.of(snapshot));
+        assertEquals(before, new StatementPrinter(
+                StatementSnapshot.of(new ColumnarStatementData(invoice(), plays()))).statement());
+    }
+
+    @Test
+    public void linesCannotBeModifiedTest() {
+        List<Performance> performances = new ArrayList<>(invoice().getPerformances());
+        Invoice invoice = new Invoice("BigCo", performances);
+        performances.clear();
+        assertEquals(3, invoice.getPerformances().size());
+
+        StatementData data = new StatementData(invoice, plays());
+        List<List<?>> lists = List.of(invoice.getPerformances(), data.getPerformances(),
+                data.snapshot().getPerformances());
+        for (List<?> list : lists) {
+            try {
+                list.remove(0);
+                fail("expected the list to be unmodifiable");
+            }
+            catch (UnsupportedOperationException exception) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void snapshotRendersConcurrentlyTest() throws Exception {
+        StatementSnapshot snapshot = new StatementData(invoice(), plays()).snapshot();
+        String text = new StatementPrinter(invoice(), plays()).statement();
+        String html = new HTMLStatementPrinter(invoice(), plays()).statement();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean plain = i % 2 == 0;
+                results.add(pool.submit(() -> plain
+                        ? text.equals(new StatementPrinter(snapshot).statement())
+                        : html.equals(new HTMLStatementPrinter(snapshot).statement())));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Invoice largeInvoice(int size) {
+        String[] playIDs = {"hamlet", "as-like", "henry-v"};
+        Random random = new Random(size);
+        List<Performance> performances = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            performances.add(new Performance(playIDs[random.nextInt(playIDs.length)], random.nextInt(120)));
+        }
+        return new Invoice("Festival", performances);
+    }
+
+    @Test
+    public void chunkedPricingKeepsLineOrderTest() {
+        Invoice invoice = largeInvoice(StatementData.PARALLEL_THRESHOLD * 4 + 17);
+        StatementData data = new StatementData(invoice, plays());
+        ColumnarStatementData sequential = new ColumnarStatementData(invoice, plays());
+
+        assertEquals(sequential.size(), data.getPerformances().size());
+        for (int i = 0; i < sequential.size(); i++) {
+            PerformanceData pd = data.getPerformances().get(i);
+            assertEquals(sequential.getPlay(i).getName(), pd.getPlayName());
+            assertEquals(sequential.getAudience(i), pd.getAudience());
+            assertEquals(sequential.getAmountCents(i), pd.getAmountCents());
+            assertEquals(sequential.getVolumeCredits(i), pd.getVolumeCredits());
+        }
+        assertEquals(sequential.getTotalAmountCents(), data.getTotalAmountCents());
+        assertEquals(sequential.getTotalVolumeCredits(), data.getTotalVolumeCredits());
+
+        StatementData lazy = StatementData.lazy(invoice, plays());
+        assertEquals(sequential.getTotalAmountCents(), lazy.getTotalAmountCents());
+        assertEquals(sequential.getTotalVolumeCredits(), lazy.getTotalVolumeCredits());
+        assertSameLines(data, lazy);
+    }
+
+    @Test
+    public void chunkedPricingStaysEditableTest() {
+        Invoice invoice = largeInvoice(StatementData.PARALLEL_THRESHOLD);
+        StatementData data = new StatementData(invoice, plays());
+        long total = data.getTotalAmountCents();
+
+        PerformanceData added = data.addPerformance(new Performance("hamlet", 55));
+        assertEquals(total + added.getAmountCents(), data.getTotalAmountCents());
+        assertEquals(invoice.getPerformances().size() + 1, data.getPerformances().size());
+        data.removePerformance(0);
+        assertEquals(invoice.getPerformances().size(), data.getPerformances().size());
+    }
+
+    @Test
+    public void chunkedPricingReportsUnknownPlayTest() {
+        List<Performance> performances = new ArrayList<>(largeInvoice(StatementData.PARALLEL_THRESHOLD * 2)
+                .getPerformances());
+        performances.set(StatementData.PARALLEL_THRESHOLD + 1, new Performance("macbeth", 10));
+        Invoice invoice = new Invoice("Festival", performances);
+
+        try {
+            new StatementData(invoice, plays());
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals(List.of("macbeth"), exception.getPlayIDs());
+        }
+        try {
+            StatementData.lazy(invoice, plays()).getTotalAmountCents();
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals("Festival", exception.getCustomer());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package theater.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.Play;
+import theater.StatementPrinter;
+import theater.calculator.PlayTypeRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class BinaryInvoiceTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Reader resource(String path) {
+        return new InputStreamReader(Objects.requireNonNull(BinaryInvoiceTests.class
+                .getClassLoader()
+                .getResourceAsStream(path)), StandardCharsets.UTF_8);
+    }
+
+    private static List<Invoice> invoices(String path) throws IOException {
+        List<Invoice> invoices = new ArrayList<>();
+        InvoiceReader.read(resource(path), invoices::add);
+        return invoices;
+    }
+
+    private void assertRoundTrip(String playsPath, String invoicesPath) throws IOException {
+        Map<String, Play> plays = PlaysReader.read(resource(playsPath));
+        List<Invoice> invoices = invoices(invoicesPath);
+        Path file = folder.newFile().toPath();
+        BinaryInvoiceWriter.write(invoices, file);
+
+        MappedInvoiceReader reader = MappedInvoiceReader.open(file);
+        assertEquals(invoices.size(), reader.getInvoiceCount());
+        for (Invoice expected : invoices) {
+            assertTrue(reader.nextInvoice());
+            Invoice actual = reader.readInvoice();
+            assertEquals(expected.getCustomer(), actual.getCustomer());
+            assertEquals(new StatementPrinter(expected, plays).statement(),
+                    new StatementPrinter(actual, plays).statement());
+        }
+        assertFalse(reader.nextInvoice());
+
+        reader = MappedInvoiceReader.open(file);
+        for (Invoice expected : invoices) {
+            assertTrue(reader.nextInvoice());
+            assertEquals(new StatementPrinter(expected, plays).statement(),
+                    new StatementPrinter(reader.readStatementData(plays, PlayTypeRegistry.getDefault())).statement());
+        }
+    }
+
+    @Test
+    public void roundTripsFixturesTest() throws IOException {
+        assertRoundTrip("plays.json", "invoices.json");
+        assertRoundTrip("new_plays.json", "new_invoices.json");
+    }
+
+    @Test
+    public void cursorSkipsUnreadPerformancesTest() throws IOException {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            invoices.add(new Invoice("C" + i % 10, List.of(
+                    new Performance("hamlet", i * 1000),
+                    new Performance("as-like", -i))));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryInvoiceWriter.write(invoices, out);
+
+        MappedInvoiceReader reader = MappedInvoiceReader.of(ByteBuffer.wrap(out.toByteArray()));
+        int count = 0;
+        while (reader.nextInvoice()) {
+            assertEquals("C" + count % 10, reader.getCustomer());
+            assertEquals(2, reader.getPerformanceCount());
+            if (count % 2 == 0) {
+                assertTrue(reader.nextPerformance());
+                assertEquals("hamlet", reader.getPlayID());
+                assertEquals(count * 1000, reader.getAudience());
+                assertTrue(reader.nextPerformance());
+                assertEquals(-count, reader.getAudience());
+                assertFalse(reader.nextPerformance());
+            }
+            count++;
+        }
+        assertEquals(1000, count);
+    }
+
+    @Test
+    public void rejectsMalformedInputTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryInvoiceWriter.write(List.of(new Invoice("A", List.of(new Performance("hamlet", 5)))), out);
+        byte[] bytes = out.toByteArray();
+
+        byte[][] malformed = {
+                new byte[0],
+                "JSON[]".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOf(bytes, bytes.length - 1),
+                // a string table of 2^31 - 1 strings in a file of a few bytes
+                {'T', 'H', 'I', 'V', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0},
+                // a string longer than the rest of the file
+                {'T', 'H', 'I', 'V', 1, 1, (byte) 0xE8, 0x07, 'h', 'a', 'm', 'l', 'e', 't', 0},
+                // a negative string count
+                {'T', 'H', 'I', 'V', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0},
+                // a varint with bits beyond 32 and one longer than five bytes
+                {'T', 'H', 'I', 'V', 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10, 0},
+                {'T', 'H', 'I', 'V', 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0},
+        };
+        for (byte[] input : malformed) {
+            try {
+                MappedInvoiceReader reader = MappedInvoiceReader.of(ByteBuffer.wrap(input));
+                while (reader.nextInvoice()) {
+                    reader.readInvoice();
+                }
+                fail("expected malformed input to be rejected: " + Arrays.toString(input));
+            }
+            catch (IOException exception) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package theater.io;
+
+import org.junit.Test;
+
+import theater.Invoice;
+import theater.Play;
+import theater.StatementPrinter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class InvoiceReaderTests {
+
+    private static String loadString(String path) {
+        try {
+            return new String(Objects.requireNonNull(InvoiceReaderTests.class
+                            .getClassLoader()
+                            .getResourceAsStream(path))
+                    .readAllBytes());
+        }
+        catch (IOException exception) {
+                fail("resource file could not be loaded prior to test executing");
+            }
+        return "";
+    }
+
+    private static Reader resource(String path) {
+        return new InputStreamReader(Objects.requireNonNull(InvoiceReaderTests.class
+                .getClassLoader()
+                .getResourceAsStream(path)), StandardCharsets.UTF_8);
+    }
+
+    private static void assertStatements(String playsPath, String invoicesPath, String expectedPath)
+            throws IOException {
+        Map<String, Play> plays = PlaysReader.read(resource(playsPath));
+        List<String> result = new ArrayList<>();
+
+        ParseStats stats = InvoiceReader.read(resource(invoicesPath),
+                invoice -> result.add(new StatementPrinter(invoice, plays).statement()));
+
+        assertEquals(1, stats.getInvoices());
+        assertEquals(loadString(expectedPath).replace("\r\n", "\n"), result.get(0).replace("\r\n", "\n"));
+    }
+
+    private static void assertRejected(String json) {
+        try {
+            InvoiceReader.read(new StringReader(json), invoice -> { });
+            fail("expected the number to be rejected: " + json);
+        }
+        catch (IOException exception) {
+            // expected
+        }
+    }
+
+    @Test
+    public void readsFixturesTest() throws IOException {
+        assertStatements("plays.json", "invoices.json", "ExampleStatement.txt");
+        assertStatements("new_plays.json", "new_invoices.json", "ExampleStatementWithNewPlays.txt");
+    }
+
+    @Test
+    public void streamsManyInvoicesTest() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"customer\":\"C").append(i).append("\",\"performances\":[")
+                    .append("{\"playID\":\"hamlet\",\"audience\":").append(i % 100).append("},")
+                    .append("{\"playID\":\"othello\",\"audience\":7}]}");
+        }
+        json.append(']');
+        long[] audience = new long[1];
+
+        ParseStats stats = InvoiceReader.read(new StringReader(json.toString()),
+                invoice -> audience[0] += invoice.getPerformances().get(0).getAudience());
+
+        assertEquals(10000, stats.getInvoices());
+        assertEquals(20000, stats.getPerformances());
+        assertEquals(json.length(), stats.getCharacters());
+        assertEquals(100 * 4950, audience[0]);
+    }
+
+    @Test
+    public void handlesEscapesAndUnknownMembersTest() throws IOException {
+        String json = " [ { \"id\" : 7, \"customer\" : \"Big \\\"Co\\\" \\u00c9t\\u00e9\", \"tags\": [1, 2.5e3, true, null, {\"a\": []}],"
+                + " \"performances\" : [ { \"audience\" : -3, \"playID\" : \"hamlet\", \"seat\": \"A\\/1\" } ] } ]\n";
+        List<Invoice> invoices = new ArrayList<>();
+
+        InvoiceReader.read(new StringReader(json), invoices::add);
+
+        assertEquals(1, invoices.size());
+        assertEquals("Big \"Co\" Été", invoices.get(0).getCustomer());
+        assertEquals("hamlet", invoices.get(0).getPerformances().get(0).getPlayID());
+        assertEquals(-3, invoices.get(0).getPerformances().get(0).getAudience());
+    }
+
+    @Test
+    public void rejectsMalformedInputTest() {
+        String[] malformed = {
+                "[{\"customer\": \"A\" \"performances\": []}]",
+                "[{\"customer\": \"A\", \"performances\": [{\"playID\": \"x\", \"audience\": 1.5}]}]",
+                "[{\"customer\": \"A\", \"performances\": []}",
+                "[{\"performances\": []}]",
+                "[] []",
+                "[{\"customer\": \"A\", \"performances\": [{\"playID\": \"x\"}]}]",
+                "[{\"customer\": \"A\", \"performances\": [{\"audience\": 5}]}]",
+        };
+        for (String json : malformed) {
+            try {
+                InvoiceReader.read(new StringReader(json), invoice -> { });
+                fail("expected malformed input to be rejected: " + json);
+            }
+            catch (IOException exception) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void rejectsTrailingCommasTest() {
+        String[] trailing = {
+                "[{\"customer\": \"A\", \"performances\": []},]",
+                "[{\"customer\": \"A\", \"performances\": [] , }]",
+                "[{\"customer\": \"A\", \"performances\": [{\"playID\": \"x\", \"audience\": 1},]}]",
+                "[{\"customer\": \"A\", \"tags\": [1, [2,]], \"performances\": []}]",
+                "[{\"customer\": \"A\", \"tags\": {\"a\": 1,}, \"performances\": []}]",
+        };
+        for (String json : trailing) {
+            try {
+                InvoiceReader.read(new StringReader(json), invoice -> { });
+                fail("expected the trailing comma to be rejected: " + json);
+            }
+            catch (IOException exception) {
+                assertTrue(exception.getMessage(), exception.getMessage().contains("trailing comma"));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsNumbersOutsideJsonGrammarTest() {
+        String[] audiences = {"+5", "007", "-", "1.", "\u0663", "5e2", "2147483648"};
+        for (String audience : audiences) {
+            assertRejected("[{\"customer\": \"A\", \"performances\": [{\"playID\": \"x\", \"audience\": "
+                    + audience + "}]}]");
+        }
+        String[] values = {"NaN", "Infinity", "-Infinity", "1d", "0x1p3", "01", ".5", "1.e3", "1e", "1e+", "+1",
+                "\u0663", "True"};
+        for (String value : values) {
+            assertRejected("[{\"customer\": \"A\", \"tag\": " + value + ", \"performances\": []}]");
+        }
+    }
+
+    @Test
+    public void skipsJsonNumbersTest() throws IOException {
+        String[] values = {"0", "-0", "10", "-1.5", "0.25e-3", "1E+9", "6.02e23"};
+        for (String value : values) {
+            ParseStats stats = InvoiceReader.read(new StringReader(
+                    "[{\"customer\": \"A\", \"tag\": " + value + ", \"performances\": []}]"), invoice -> { });
+            assertEquals(value, 1, stats.getInvoices());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package theater.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import theater.CompiledHtmlTemplate;
+import theater.HTMLStatementPrinter;
+import theater.StatementPrinter;
+import theater.data.ColumnarStatementData;
+import theater.data.StatementData;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static theater.Fixtures.invoice;
+import static theater.Fixtures.plays;
+
+
+public class MetricsTests {
+
+    @After
+    public void resetMetrics() {
+        Metrics.reset();
+    }
+
+    @Test
+    public void noOpByDefaultTest() {
+        assertSame(MetricsSink.NO_OP, Metrics.sink());
+        assertFalse(Metrics.sink().isEnabled());
+    }
+
+    @Test
+    public void recordsPipelineEventsTest() {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        Metrics.install(sink);
+
+        String text = new StatementPrinter(invoice(), plays()).statement();
+        new HTMLStatementPrinter(new ColumnarStatementData(invoice(), plays())).statement();
+        byte[] html = new CompiledHtmlTemplate().render(new ColumnarStatementData(invoice(), plays()));
+
+        assertEquals(Map.of("comedy", 3L, "tragedy", 6L), sink.getLinesPriced());
+        assertEquals(3, sink.getStatementsPriced());
+        assertEquals(Map.of("CompiledHtmlTemplate", 1L, "HTMLStatementPrinter", 1L, "StatementPrinter", 1L),
+                sink.getStatementsRendered());
+        assertEquals(3 * 4, sink.getCurrencyFormats());
+        assertEquals(3, sink.getStatementSizeHistogram().getCount());
+        assertEquals(html.length, sink.getStatementSizeMax());
+        assertTrue(sink.getStatementSizeHistogram().getSum() > text.length());
+        assertEquals(text.length(), sink.getStatementSizeHistogram("StatementPrinter").getMax());
+        assertEquals(html.length, sink.getStatementSizeHistogram("CompiledHtmlTemplate").getMax());
+        assertEquals(1, sink.getStatementSizeHistogram("HTMLStatementPrinter").getCount());
+        assertEquals(0, sink.getStatementSizeHistogram("OtherPrinter").getCount());
+        assertTrue(sink.getRenderingMeanNanos() > 0);
+
+        sink.reset();
+        assertEquals(0, sink.getStatementsPriced());
+        assertTrue(sink.getLinesPriced().isEmpty());
+        assertEquals(0, sink.getStatementSizeHistogram("StatementPrinter").getCount());
+    }
+
+    @Test
+    public void lazyStatementIsPricedOnceTest() {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        Metrics.install(sink);
+
+        StatementData data = StatementData.lazy(invoice(), plays());
+        data.getTotalAmountCents();
+        data.getPerformances();
+
+        assertEquals(1, sink.getStatementsPriced());
+        assertEquals(Map.of("comedy", 1L, "tragedy", 2L), sink.getLinesPriced());
+    }
+
+    @Test
+    public void histogramTest() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(99), 0);
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(5050.0 / 101, histogram.getMean(), 1e-9);
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+        assertEquals(1, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void exportsToJmxTest() throws Exception {
+        RecordingMetricsSink sink = new RecordingMetricsSink();
+        ObjectName name = JmxMetricsExporter.register(sink, "theater.test:type=Metrics");
+        try {
+            Metrics.install(sink);
+            new StatementPrinter(invoice(), plays()).statement();
+
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "StatementsPriced"));
+            TabularData lines = (TabularData) ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(name, "LinesPriced");
+            assertEquals(2, lines.size());
+        }
+        finally {
+            JmxMetricsExporter.unregister(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,191 @@
+package theater.pipeline;
+
+import org.junit.Test;
+
+import theater.HTMLStatementPrinter;
+import theater.Invoice;
+import theater.Performance;
+import theater.StatementFormat;
+import theater.data.UnknownPlayException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.plays;
+
+
+public class StatementPipelineTests {
+
+    private static List<Invoice> invoices(int count) {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            invoices.add(new Invoice("Customer " + i, List.of(new Performance("hamlet", 20 + i % 50),
+                    new Performance("as-like", i % 40), new Performance("henry-v", 10 + i % 30))));
+        }
+        return invoices;
+    }
+
+    @Test
+    public void writesEveryStatementTest() throws Exception {
+        Map<String, String> written = new ConcurrentHashMap<>();
+        StatementPipeline pipeline = StatementPipeline.builder(plays(),
+                        (invoice, statement) -> written.put(invoice.getCustomer(), statement))
+                .format(StatementFormat.HTML)
+                .pricingThreads(3)
+                .renderingThreads(2)
+                .writingThreads(2)
+                .queueCapacity(4)
+                .start();
+        List<Invoice> invoices = invoices(500);
+        pipeline.process(invoices);
+
+        assertEquals(invoices.size(), written.size());
+        for (Invoice invoice : invoices) {
+            assertEquals(new HTMLStatementPrinter(invoice, plays()).statement(),
+                    written.get(invoice.getCustomer()));
+        }
+        List<StageStats> stats = pipeline.getStats();
+        assertEquals(List.of("price", "render", "write"),
+                List.of(stats.get(0).getName(), stats.get(1).getName(), stats.get(2).getName()));
+        for (StageStats stage : stats) {
+            assertEquals(stage.toString(), invoices.size(), stage.getProcessed());
+            assertEquals(0, stage.getQueueDepth());
+            assertEquals(4, stage.getQueueCapacity());
+            assertTrue(stage.toString(), stage.getThroughput() > 0);
+        }
+    }
+
+    @Test
+    public void slowSinkHoldsBackSubmitTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StatementPipeline pipeline = StatementPipeline.builder(plays(), (invoice, statement) -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException exception) {
+                throw new IOException(exception);
+            }
+        })
+                .pricingThreads(1)
+                .renderingThreads(1)
+                .queueCapacity(2)
+                .start();
+        AtomicInteger submitted = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                for (Invoice invoice : invoices(100)) {
+                    pipeline.submit(invoice);
+                    submitted.incrementAndGet();
+                }
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        // three queues of two plus one invoice held by each of the three stages
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (submitted.get() < 9 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+        assertEquals(9, submitted.get());
+        for (StageStats stage : pipeline.getStats()) {
+            assertTrue(stage.toString(), stage.getQueueDepth() <= stage.getQueueCapacity());
+        }
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        pipeline.finish();
+        assertEquals(100, submitted.get());
+        assertEquals(100, pipeline.getStats().get(2).getProcessed());
+    }
+
+    @Test
+    public void pricingFailureIsReportedTest() throws Exception {
+        List<Invoice> invoices = new ArrayList<>(invoices(50));
+        invoices.add(25, new Invoice("Bad", List.of(new Performance("macbeth", 10))));
+        StatementPipeline pipeline = StatementPipeline.builder(plays(), (invoice, statement) -> { })
+                .queueCapacity(2)
+                .start();
+        try {
+            pipeline.process(invoices);
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException exception) {
+            assertEquals("Bad", exception.getCustomer());
+        }
+    }
+
+    @Test
+    public void sinkFailureIsReportedTest() throws Exception {
+        StatementPipeline pipeline = StatementPipeline.builder(plays(), (invoice, statement) -> {
+            throw new IOException("disk full");
+        }).start();
+        try {
+            pipeline.process(invoices(20));
+            fail("expected the sink failure to be reported");
+        }
+        catch (IOException exception) {
+            assertEquals("disk full", exception.getMessage());
+        }
+        try {
+            pipeline.submit(invoices(1).get(0));
+            fail("expected a finished pipeline to refuse invoices");
+        }
+        catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void submitRacingFinishIsWrittenOrRefusedTest() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger written = new AtomicInteger();
+            AtomicInteger accepted = new AtomicInteger();
+            // with room for one invoice, submitters wait in put while finish queues the end marker
+            StatementPipeline pipeline = StatementPipeline.builder(plays(),
+                    (invoice, statement) -> written.incrementAndGet()).queueCapacity(1).start();
+            List<Thread> submitters = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread submitter = new Thread(() -> {
+                    try {
+                        for (Invoice invoice : invoices(50)) {
+                            pipeline.submit(invoice);
+                            accepted.incrementAndGet();
+                        }
+                    }
+                    catch (IllegalStateException | InterruptedException refused) {
+                        // the pipeline finished first
+                    }
+                });
+                submitters.add(submitter);
+                submitter.start();
+            }
+            pipeline.finish();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+            assertEquals(accepted.get(), written.get());
+        }
+    }
+
+    @Test
+    public void rejectsInvalidSettingsTest() {
+        try {
+            StatementPipeline.builder(plays(), (invoice, statement) -> { }).writingThreads(0);
+            fail("expected zero threads to be rejected");
+        }
+        catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package theater.report;
+
+import org.junit.Test;
+
+import theater.Invoice;
+import theater.Performance;
+import theater.calculator.StandardPricing;
+import theater.data.PlayCatalog;
+import theater.data.StatementData;
+import theater.data.UnknownPlayException;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static theater.Fixtures.plays;
+
+
+public class RevenueReportTests {
+
+    private static final String[] PLAY_IDS = {"hamlet", "as-like", "othello", "henry-v", "tempest"};
+    private static final String[] CUSTOMERS = {"BigCo", "SmallCo", "MediumCo", "TinyCo"};
+
+    private static List<Invoice> invoices(int count, long seed) {
+        Random random = new Random(seed);
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Performance> performances = new ArrayList<>();
+            int lines = random.nextInt(8);
+            for (int j = 0; j < lines; j++) {
+                performances.add(new Performance(PLAY_IDS[random.nextInt(PLAY_IDS.length)], random.nextInt(150)));
+            }
+            invoices.add(new Invoice(CUSTOMERS[random.nextInt(CUSTOMERS.length)], performances));
+        }
+        return invoices;
+    }
+
+    @Test
+    public void rollsUpByEveryGroupTest() {
+        Invoice bigCo = new Invoice("BigCo", List.of(new Performance("hamlet", 55),
+                new Performance("as-like", 35), new Performance("hamlet", 20)));
+        Invoice smallCo = new Invoice("SmallCo", List.of(new Performance("othello", 40)));
+
+        RevenueReport report = List.of(new StatementData(bigCo, plays()), new StatementData(smallCo, plays()))
+                .stream()
+                .collect(RevenueReport.collector());
+
+        long hamlet55 = StandardPricing.TRAGEDY.amount(55);
+        long hamlet20 = StandardPricing.TRAGEDY.amount(20);
+        long asLike = StandardPricing.COMEDY.amount(35);
+        long othello = StandardPricing.TRAGEDY.amount(40);
+        assertEquals(2, report.getStatements());
+        assertEquals(new Rollup(4, hamlet55 + hamlet20 + asLike + othello, 25 + 5 + 7 + 10), report.getTotal());
+        assertEquals(new Rollup(2, hamlet55 + hamlet20, 25), report.getByPlay().get("Hamlet"));
+        assertEquals(new Rollup(3, hamlet55 + hamlet20 + othello, 35), report.getByPlayType().get("tragedy"));
+        assertEquals(new Rollup(3, hamlet55 + hamlet20 + asLike, 37), report.getByCustomer().get("BigCo"));
+        assertEquals(List.of("up to 20", "21-30", "31-50", "51-100", "over 100"),
+                new ArrayList<>(report.getByAudience().keySet()));
+        assertEquals(new Rollup(1, hamlet20, 0), report.getByAudience().get("up to 20"));
+        assertEquals(new Rollup(2, asLike + othello, 22), report.getByAudience().get("31-50"));
+        assertEquals(Rollup.EMPTY, report.getByAudience().get("over 100"));
+    }
+
+    @Test
+    public void groupsAddUpToTotalTest() {
+        RevenueReport report = invoices(500, 7).stream()
+                .map(invoice -> new StatementData(invoice, plays()))
+                .collect(RevenueReport.collector());
+
+        for (Map<String, Rollup> groups : List.of(report.getByPlay(), report.getByPlayType(),
+                report.getByCustomer(), report.getByAudience())) {
+            assertEquals(report.getTotal(), groups.values().stream()
+                    .reduce((a, b) -> new Rollup(a.getLines() + b.getLines(),
+                            a.getAmountCents() + b.getAmountCents(), a.getVolumeCredits() + b.getVolumeCredits()))
+                    .orElseThrow());
+        }
+    }
+
+    @Test
+    public void parallelMatchesSequentialTest() {
+        List<Invoice> invoices = invoices(5_000, 42);
+        PlayCatalog catalog = new PlayCatalog(plays());
+
+        RevenueReport sequential = invoices.stream()
+                .map(invoice -> new StatementData(invoice, plays()))
+                .collect(RevenueReport.collector());
+        RevenueReport parallel = invoices.parallelStream().collect(RevenueReport.invoiceCollector(catalog));
+        RevenueReport engine = new ReportEngine(catalog, AudienceBuckets.standard(), new ForkJoinPool(4))
+                .report(invoices.stream());
+
+        assertEquals(invoices.size(), sequential.getStatements());
+        assertEquals(sequential, parallel);
+        assertEquals(sequential, engine);
+    }
+
+    @Test
+    public void mergeCombinesAccumulatorsTest() {
+        List<Invoice> invoices = invoices(100, 3);
+        ReportAccumulator first = new ReportAccumulator(AudienceBuckets.standard());
+        ReportAccumulator second = new ReportAccumulator(AudienceBuckets.standard());
+        ReportAccumulator all = new ReportAccumulator(AudienceBuckets.standard());
+        for (int i = 0; i < invoices.size(); i++) {
+            StatementData data = new StatementData(invoices.get(i), plays());
+            (i % 3 == 0 ? first : second).add(data);
+            all.add(data);
+        }
+
+        assertEquals(all.toReport(), first.merge(second).toReport());
+        try {
+            first.merge(new ReportAccumulator(AudienceBuckets.of(10)));
+            fail("expected accumulators with different buckets not to merge");
+        }
+        catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void customBucketsTest() {
+        AudienceBuckets buckets = AudienceBuckets.of(0, 1, 10);
+        assertEquals(4, buckets.size());
+        assertEquals("up to 0", buckets.getLabel(buckets.indexOf(-3)));
+        assertEquals("1", buckets.getLabel(buckets.indexOf(1)));
+        assertEquals("2-10", buckets.getLabel(buckets.indexOf(2)));
+        assertEquals("2-10", buckets.getLabel(buckets.indexOf(10)));
+        assertEquals("over 10", buckets.getLabel(buckets.indexOf(Integer.MAX_VALUE)));
+
+        try {
+            AudienceBuckets.of(10, 10);
+            fail("expected bounds that do not increase to be rejected");
+        }
+        catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void unknownPlayFailsReportTest() {
+        Invoice invoice = new Invoice("BigCo", List.of(new Performance("macbeth", 10)));
+        try {
+            new ReportEngine(new PlayCatalog(plays())).report(List.of(invoice).stream());
+            fail("expected the unknown play to be reported");
+        }
+        catch (UnknownPlayException expected) {
+            assertEquals(List.of("macbeth"), expected.getPlayIDs());
+        }
+    }
+
+    @Test
+    public void groupsAreSortedTest() {
+        RevenueReport report = invoices(50, 11).stream()
+                .map(invoice -> new StatementData(invoice, plays()))
+                .collect(RevenueReport.collector());
+        assertEquals(new TreeMap<>(report.getByCustomer()).keySet().toString(),
+                report.getByCustomer().keySet().toString());
+    }
+}